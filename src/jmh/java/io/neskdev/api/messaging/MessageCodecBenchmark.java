@@ -0,0 +1,80 @@
+package io.neskdev.api.messaging;
+
+import io.neskdev.api.utils.GsonProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary {@link MessageCodec} encoding of a small message against the pretty-printed JSON sent so far.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+
+    private static final MessageCodec<Transfer> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(Transfer message, MessageWriter writer) {
+            writer.writeUUID(message.player).writeString(message.target).writeVarInt(message.online).writeBoolean(message.priority);
+        }
+
+        @Override
+        public Transfer decode(MessageReader reader) {
+            return new Transfer(reader.readUUID(), reader.readString(), reader.readVarInt(), reader.readBoolean());
+        }
+    };
+
+    private final MessageWriter writer = new MessageWriter();
+    private Transfer message;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        message = new Transfer(UUID.randomUUID(), "lobby-3", 87, false);
+        binary = encodeBinary();
+        json = encodeJson();
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        writer.reset();
+        CODEC.encode(message, writer);
+        return writer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return GsonProvider.GSON.toJson(message).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Transfer decodeBinary() {
+        return CODEC.decode(new MessageReader(binary));
+    }
+
+    @Benchmark
+    public Transfer decodeJson() {
+        return GsonProvider.GSON.fromJson(new String(json, StandardCharsets.UTF_8), Transfer.class);
+    }
+
+    public static final class Transfer {
+        private final UUID player;
+        private final String target;
+        private final int online;
+        private final boolean priority;
+
+        public Transfer(UUID player, String target, int online, boolean priority) {
+            this.player = player;
+            this.target = target;
+            this.online = online;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.neskdev.api.rank;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled {@link PermissionIndex} with the former {@code Set.contains} lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionIndexBenchmark {
+
+    private Set<String> permissions;
+    private PermissionIndex index;
+    private PermissionIndex inheritedIndex;
+
+    @Setup
+    public void setup() {
+        permissions = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            permissions.add("plugin" + (i % 20) + ".command.node" + i);
+        }
+        permissions.add("lobby.*");
+        permissions.add("-lobby.admin");
+
+        index = PermissionIndex.compile(permissions);
+
+        BenchmarkRank member = new BenchmarkRank("member", 0, permissions);
+        BenchmarkRank vip = new BenchmarkRank("vip", 10, Set.of("cosmetics.*", "-cosmetics.staff"));
+        BenchmarkRank admin = new BenchmarkRank("admin", 100, Set.of("lobby.admin", "moderation.*"));
+        inheritedIndex = PermissionIndex.compile(admin, List.of(member, vip, admin));
+    }
+
+    @Benchmark
+    public boolean setContainsHit() {
+        return permissions.contains("plugin7.command.node107");
+    }
+
+    @Benchmark
+    public boolean setContainsMiss() {
+        return permissions.contains("plugin7.command.missing");
+    }
+
+    @Benchmark
+    public boolean indexExactHit() {
+        return index.hasPermission("plugin7.command.node107");
+    }
+
+    @Benchmark
+    public boolean indexMiss() {
+        return index.hasPermission("plugin7.command.missing");
+    }
+
+    @Benchmark
+    public boolean indexWildcardHit() {
+        return index.hasPermission("lobby.join.survival");
+    }
+
+    @Benchmark
+    public boolean indexInheritedHit() {
+        return inheritedIndex.hasPermission("cosmetics.hat.crown");
+    }
+
+    private static final class BenchmarkRank implements Rank {
+        private final String name;
+        private final int power;
+        private final Set<String> permissions;
+
+        private BenchmarkRank(String name, int power, Set<String> permissions) {
+            this.name = name;
+            this.power = power;
+            this.permissions = permissions;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getPrefix() {
+            return name;
+        }
+
+        @Override
+        public int getPower() {
+            return power;
+        }
+
+        @Override
+        public boolean isDefaultRank() {
+            return power == 0;
+        }
+
+        @Override
+        public Set<String> getPermissions() {
+            return permissions;
+        }
+
+        @Override
+        public Document toDocument() {
+            return null;
+        }
+
+        @Override
+        public String toJson() {
+            return null;
+        }
+    }
+}
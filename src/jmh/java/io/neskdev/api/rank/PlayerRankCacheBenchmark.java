@@ -0,0 +1,93 @@
+package io.neskdev.api.rank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of {@link PlayerRankCache} against the unbounded {@code ConcurrentHashMap<UUID, Rank>} plugins keep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerRankCacheBenchmark {
+
+    private static final int PLAYERS = 10_000;
+
+    private PlayerRankCache cache;
+    private Map<UUID, Rank> map;
+    private UUID[] players;
+    private UUID absent;
+
+    @Setup
+    public void setup() {
+        Map<String, Rank> ranks = new HashMap<>();
+        ranks.put("member", new SimpleRank("member", "", 0, true, Set.of()));
+        ranks.put("vip", new SimpleRank("vip", "", 10, false, Set.of()));
+        RankRepository repository = new RankRepository() {
+            @Override
+            public Rank getRank(String name) {
+                return ranks.get(name);
+            }
+
+            @Override
+            public List<Rank> getRanks() {
+                return new ArrayList<>(ranks.values());
+            }
+
+            @Override
+            public void addRank(Rank rank) {
+            }
+
+            @Override
+            public void deleteRank(Rank rank) {
+            }
+        };
+
+        cache = new PlayerRankCache(repository, uuid -> "member", PLAYERS);
+        map = new ConcurrentHashMap<>();
+        players = new UUID[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = UUID.randomUUID();
+            Rank rank = ranks.get(i % 10 == 0 ? "vip" : "member");
+            cache.set(players[i], rank);
+            map.put(players[i], rank);
+        }
+        absent = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Rank cacheHit(Cursor cursor) {
+        return cache.getIfPresent(players[cursor.next()]);
+    }
+
+    @Benchmark
+    public Rank cacheMiss() {
+        return cache.getIfPresent(absent);
+    }
+
+    @Benchmark
+    public Rank mapHit(Cursor cursor) {
+        return map.get(players[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Rank cacheHitContended(Cursor cursor) {
+        return cache.getIfPresent(players[cursor.next()]);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        int next() {
+            return position++ & 8191;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.neskdev.api.rank;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankBenchmark {
+
+    private Rank rank;
+    private Predicate<String> predicate;
+    private Document document;
+
+    @Setup
+    public void setup() {
+        Set<String> permissions = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            permissions.add("plugin" + (i % 10) + ".command.node" + i);
+        }
+        permissions.add("lobby.*");
+
+        rank = new SimpleRank("admin", "&c[Admin] ", 100, false, permissions);
+        predicate = rank.hasPermissionPredicate();
+        document = rank.toDocument();
+    }
+
+    @Benchmark
+    public boolean hasPermission() {
+        return rank.hasPermission("plugin3.command.node43");
+    }
+
+    @Benchmark
+    public boolean hasPermissionPredicate() {
+        return predicate.test("lobby.join");
+    }
+
+    @Benchmark
+    public Rank fromDocument() {
+        return Rank.fromDocument(document);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return rank.toJson();
+    }
+}
@@ -0,0 +1,84 @@
+package io.neskdev.api.rank;
+
+import io.neskdev.api.utils.GsonProvider;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a few thousand ranks from their BSON bytes, through {@link RankCodec} and through the
+ * former {@code Document -> JSON -> Gson} path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankCodecBenchmark {
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+
+    @Param({"5000"})
+    public int rankCount;
+
+    private final RankCodec codec = new RankCodec();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private byte[][] encodedRanks;
+
+    @Setup
+    public void setup() {
+        encodedRanks = new byte[rankCount][];
+        for (int i = 0; i < rankCount; i++) {
+            Set<String> permissions = new HashSet<>();
+            for (int p = 0; p < 30; p++) {
+                permissions.add("plugin" + p + ".command." + i);
+            }
+
+            BasicOutputBuffer buffer = new BasicOutputBuffer();
+            codec.encode(new BsonBinaryWriter(buffer), new SimpleRank("rank" + i, "&7[Rank" + i + "] ", i, i == 0, permissions), ENCODER_CONTEXT);
+            encodedRanks[i] = buffer.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public void codec(Blackhole blackhole) {
+        for (byte[] bytes : encodedRanks) {
+            blackhole.consume(codec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DECODER_CONTEXT));
+        }
+    }
+
+    @Benchmark
+    public void documentThenFromDocument(Blackhole blackhole) {
+        for (byte[] bytes : encodedRanks) {
+            Document document = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DECODER_CONTEXT);
+            blackhole.consume(Rank.fromDocument(document));
+        }
+    }
+
+    /**
+     * The former {@code Rank.fromDocument}: {@code toJson()}, a pretty-printed Gson round trip of that
+     * string, then the reflective Gson decode the cast was meant to perform.
+     */
+    @Benchmark
+    public void legacyJsonRoundTrip(Blackhole blackhole) {
+        for (byte[] bytes : encodedRanks) {
+            Document document = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DECODER_CONTEXT);
+            String json = document.toJson();
+            String roundTrip = GsonProvider.GSON.fromJson(GsonProvider.GSON.toJson(json), String.class);
+            blackhole.consume(GsonProvider.GSON.fromJson(roundTrip, SimpleRank.class));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.neskdev.api.rank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RankSnapshot} lookups against sorting and scanning {@link RankRepository#getRanks()} on every use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankSnapshotBenchmark {
+
+    @Param({"8", "64"})
+    public int rankCount;
+
+    private List<Rank> ranks;
+    private RankSnapshot snapshot;
+    private Rank middle;
+
+    @Setup
+    public void setup() {
+        ranks = new ArrayList<>();
+        for (int i = 0; i < rankCount; i++) {
+            ranks.add(new SimpleRank("rank" + i, "", (i * 37) % 1000, i == rankCount - 1, Set.of()));
+        }
+        Collections.shuffle(ranks, new Random(1));
+        snapshot = RankSnapshot.of(ranks);
+        middle = ranks.get(rankCount / 2);
+    }
+
+    @Benchmark
+    public Rank higherBySorting() {
+        List<Rank> sorted = new ArrayList<>(ranks);
+        sorted.sort(Comparator.comparingInt(Rank::getPower));
+        for (Rank rank : sorted) {
+            if (rank.getPower() > middle.getPower()) {
+                return rank;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Rank higherSnapshot() {
+        return snapshot.higher(middle);
+    }
+
+    @Benchmark
+    public Rank defaultByScan() {
+        for (Rank rank : ranks) {
+            if (rank.isDefaultRank()) {
+                return rank;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Rank defaultSnapshot() {
+        return snapshot.getDefaultRank();
+    }
+
+    @Benchmark
+    public Rank atLeastSnapshot() {
+        return snapshot.atLeast(500);
+    }
+}
@@ -0,0 +1,45 @@
+package io.neskdev.api.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of a burst of blocking tasks, such as Redis or Mongo calls, on each {@link AsyncUtils.Mode}.
+ * On Java 21 and later, {@link AsyncUtils.Mode#IO} runs them on virtual threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncModeBenchmark {
+
+    @Param({"COMMON", "IO", "CPU"})
+    public AsyncUtils.Mode mode;
+
+    @Param({"10000"})
+    public int tasks;
+
+    @Param({"10"})
+    public long blockMillis;
+
+    @Benchmark
+    public Object blockingBurst() {
+        CompletableFuture<?>[] futures = new CompletableFuture[this.tasks];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = AsyncUtils.run(this.mode, this::block);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    private void block() {
+        try {
+            Thread.sleep(this.blockMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.neskdev.api.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of an empty task through {@link AsyncUtils}: submission, hand-off and completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncUtilsBenchmark {
+
+    @Benchmark
+    public Object runSupplier() {
+        return AsyncUtils.run(() -> Boolean.TRUE).join();
+    }
+
+    @Benchmark
+    public Object runRunnable() {
+        return AsyncUtils.run(() -> {
+        }).join();
+    }
+
+    @Benchmark
+    public long runLater() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long id = AsyncUtils.runLater(latch::countDown, 0, TimeUnit.MILLISECONDS);
+        latch.await();
+        return id;
+    }
+}
@@ -0,0 +1,43 @@
+package io.neskdev.api.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonUtilsBenchmark {
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        json = GsonProvider.GSON.toJson(new Payload("lobby-1", 42, 100, true, List.of("a", "b", "c")));
+    }
+
+    @Benchmark
+    public Payload fromJson() {
+        return GsonUtils.fromJson(json, Payload.class);
+    }
+
+    public static class Payload {
+        private final String name;
+        private final int online;
+        private final int max;
+        private final boolean open;
+        private final List<String> tags;
+
+        public Payload(String name, int online, int max, boolean open, List<String> tags) {
+            this.name = name;
+            this.online = online;
+            this.max = max;
+            this.open = open;
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.neskdev.api.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scheduling and cancelling a timer through {@link AsyncUtils} while 100k other timers are pending,
+ * on each {@link AsyncUtils.TimerBackend}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBackendBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Param({"HEAP", "WHEEL"})
+    public AsyncUtils.TimerBackend backend;
+
+    @Param({"100000"})
+    public int pending;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AsyncUtils.setTimerBackend(this.backend);
+        this.ids = new long[this.pending];
+        for (int i = 0; i < this.ids.length; i++) {
+            // Spread over the next minutes, as cooldowns and combat tags would be
+            this.ids[i] = AsyncUtils.runLater(NOOP, 60_000 + i, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (long id : this.ids) {
+            AsyncUtils.stopTask(id);
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        long id = AsyncUtils.runLater(NOOP, 30, TimeUnit.SECONDS);
+        return AsyncUtils.stopTask(id);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public boolean scheduleThenCancelBurst() {
+        long[] burst = new long[1000];
+        for (int i = 0; i < burst.length; i++) {
+            burst[i] = AsyncUtils.runLater(NOOP, 5_000 + i, TimeUnit.MILLISECONDS);
+        }
+        boolean cancelled = true;
+        for (long id : burst) {
+            cancelled &= AsyncUtils.stopTask(id);
+        }
+        return cancelled;
+    }
+}
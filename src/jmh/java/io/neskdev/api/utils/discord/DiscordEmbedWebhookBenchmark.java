@@ -0,0 +1,56 @@
+package io.neskdev.api.utils.discord;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the JSON payload of an audit-log style embed without sending it, directly and from a template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscordEmbedWebhookBenchmark {
+
+    private DiscordEmbedWebhook webhook;
+    private WebhookTemplate template;
+
+    @Setup
+    public void setup() {
+        webhook = new DiscordEmbedWebhook("https://discord.com/api/webhooks/0/benchmark")
+                .setUsername("Audit")
+                .setColor(Color.RED)
+                .setDescription("Sanction appliquée à \"Player\"")
+                .addField("Joueur", "Player", true)
+                .addField("Modérateur", "Staff", true)
+                .addField("Raison", "Utilisation d'un client modifié", false)
+                .setFooter("NeskAPI", null);
+        template = WebhookTemplate.of(new DiscordEmbedWebhook("https://discord.com/api/webhooks/0/benchmark")
+                .setUsername("Audit")
+                .setColor(Color.RED)
+                .setDescription("Sanction appliquée à \"{{player}}\"")
+                .addField("Joueur", "{{player}}", true)
+                .addField("Modérateur", "{{staff}}", true)
+                .addField("Raison", "{{reason}}", false)
+                .setFooter("NeskAPI", null));
+    }
+
+    @Benchmark
+    public String buildPayload() {
+        return webhook.buildPayload();
+    }
+
+    @Benchmark
+    public byte[] encodePayload() {
+        return webhook.encodePayload();
+    }
+
+    @Benchmark
+    public byte[] renderTemplate() {
+        return template.render("Player", "Staff", "Utilisation d'un client modifié");
+    }
+}
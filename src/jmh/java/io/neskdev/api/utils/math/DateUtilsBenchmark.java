@@ -0,0 +1,56 @@
+package io.neskdev.api.utils.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private final int seconds = 3 * 86_400 + 4 * 3_600 + 5 * 60 + 6;
+    private final int unixSeconds = 1_760_000_000;
+    private final long unixMillis = 1_760_000_000_000L;
+    private final StringBuilder builder = new StringBuilder(64);
+
+    @Benchmark
+    public String secToTime() {
+        return DateUtils.secToTime(seconds);
+    }
+
+    @Benchmark
+    public StringBuilder appendSecToTime() {
+        builder.setLength(0);
+        return DateUtils.appendSecToTime(builder, seconds);
+    }
+
+    @Benchmark
+    public String getFormatTimeDifference() {
+        return DateUtils.getFormatTimeDifference(seconds);
+    }
+
+    @Benchmark
+    public String getFormatedNow() {
+        return DateUtils.getFormatedNow();
+    }
+
+    @Benchmark
+    public StringBuilder appendUnixToTime() {
+        builder.setLength(0);
+        return DateUtils.appendUnixToTime(builder, unixSeconds);
+    }
+
+    @Benchmark
+    public String unixToTimeSeconds() {
+        return DateUtils.unixToTime(unixSeconds);
+    }
+
+    @Benchmark
+    public String unixToTimeMillis() {
+        return DateUtils.unixToTime(unixMillis);
+    }
+}
@@ -0,0 +1,46 @@
+package io.neskdev.api.utils.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IdGenerator} against {@link RandomStringUtils#generate(int)} for an 11 character identifier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final IdGenerator generator = new IdGenerator(42);
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public String[] generateBulk() {
+        return generator.generate(100);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    public String randomString() {
+        return RandomStringUtils.generate(IdGenerator.BASE62_LENGTH);
+    }
+}
@@ -0,0 +1,22 @@
+package io.neskdev.api.utils.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomStringUtilsBenchmark {
+
+    @Param({"8", "16", "32"})
+    public int length;
+
+    @Benchmark
+    public String generate() {
+        return RandomStringUtils.generate(length);
+    }
+}
@@ -0,0 +1,77 @@
+package io.neskdev.api.utils.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joining command arguments, against the former quadratic concatenation, and typed parsing through a view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilBenchmark {
+
+    @Param({"4", "32", "128"})
+    public int words;
+
+    private String[] args;
+    private String[] command;
+    private final StringBuilder builder = new StringBuilder(2048);
+
+    @Setup
+    public void setup() {
+        args = new String[words + 1];
+        args[0] = "player";
+        for (int i = 1; i < args.length; i++) {
+            args[i] = "word" + i;
+        }
+        command = new String[]{"ban", UUID.randomUUID().toString(), "7d12h", "3", "Cheating", "with", "a", "client"};
+    }
+
+    @Benchmark
+    public String consolidateStrings() {
+        return StringUtil.consolidateStrings(args, 1);
+    }
+
+    @Benchmark
+    public String consolidateStringsLegacy() {
+        return legacyConsolidateStrings(args, 1);
+    }
+
+    @Benchmark
+    public int viewAppendTo() {
+        builder.setLength(0);
+        return StringUtil.view(args, 1).appendTo(builder).length();
+    }
+
+    @Benchmark
+    public long readerParse() {
+        ArgumentReader reader = StringUtil.reader(command, 1);
+        UUID target = reader.nextUUID();
+        long seconds = reader.nextDuration().getSeconds();
+        int level = reader.nextInt();
+        return target.getLeastSignificantBits() + seconds + level + reader.remaining().length();
+    }
+
+    @Benchmark
+    public long splitParse() {
+        UUID target = UUID.fromString(command[1]);
+        long seconds = Long.parseLong(command[2].substring(0, 1)) * 86_400 + Long.parseLong(command[2].substring(2, 4)) * 3_600;
+        int level = Integer.parseInt(command[3]);
+        return target.getLeastSignificantBits() + seconds + level + legacyConsolidateStrings(command, 4).length();
+    }
+
+    private static String legacyConsolidateStrings(String[] args, int start) {
+        String ret = args[start];
+        if (args.length > (start + 1)) {
+            for (int i = (start + 1); i < args.length; i++)
+                ret = ret + " " + args[i];
+        }
+        return ret;
+    }
+}
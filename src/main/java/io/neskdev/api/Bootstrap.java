@@ -0,0 +1,207 @@
+package io.neskdev.api;
+
+import io.neskdev.api.utils.AsyncUtils;
+import io.neskdev.api.utils.TaskMetrics;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Startup of the services behind {@link NeskAPI}, in parallel where their dependencies allow it.
+ * <p>
+ * Each service is registered with the services it needs, which makes cycles impossible. {@link #start()}
+ * starts every eager service as soon as its dependencies are up, so that independent ones, such as the Mongo
+ * and Redis connections, connect at the same time, then prints a {@link StartupReport}. Lazy services start
+ * on first use.
+ * <pre>{@code
+ * Bootstrap bootstrap = new Bootstrap();
+ * Service<DatabaseManager> database = bootstrap.register("database", MyDatabaseManager::connect);
+ * Service<RankRepository> ranks = bootstrap.register("ranks", () -> loadRanks(database.get()), database);
+ * Service<LobbyManager> lobbies = bootstrap.registerLazy("lobbies", () -> new MyLobbyManager(database.get()), database);
+ * bootstrap.start();
+ * NeskAPI.set(new MyNeskAPI(database, ranks, lobbies));
+ * }</pre>
+ */
+public class Bootstrap implements AutoCloseable {
+
+    private static final String CATEGORY = "bootstrap";
+
+    @Getter
+    private final Executor executor;
+    private final List<Service<?>> services = new ArrayList<>();
+    // Started services, in the order they finished starting, with their instance
+    private final List<Map.Entry<Service<?>, Object>> started = new ArrayList<>();
+
+    private volatile long startedAt;
+
+    /**
+     * Starts the services on {@link AsyncUtils.Mode#IO} threads, as they mostly wait on the network.
+     */
+    public Bootstrap() {
+        this(AsyncUtils.getExecutor(AsyncUtils.Mode.IO));
+    }
+
+    public Bootstrap(Executor executor) {
+        this.executor = TaskMetrics.wrap(CATEGORY, executor);
+    }
+
+    /**
+     * Registers a service started by {@link #start()}, once all its dependencies are.
+     */
+    public synchronized <T> Service<T> register(String name, Service.Factory<T> factory, Service<?>... dependencies) {
+        return add(name, false, factory, dependencies);
+    }
+
+    /**
+     * Registers a service started on its first {@link Service#get()}, or with an eager service that depends on it.
+     */
+    public synchronized <T> Service<T> registerLazy(String name, Service.Factory<T> factory, Service<?>... dependencies) {
+        return add(name, true, factory, dependencies);
+    }
+
+    public synchronized List<Service<?>> getServices() {
+        return new ArrayList<>(this.services);
+    }
+
+    /**
+     * Starts the eager services, and waits for them.
+     *
+     * @throws IllegalStateException if a service failed to start
+     */
+    public StartupReport start() {
+        return start(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts the eager services, and waits for them at most {@code timeout}, 0 waiting forever.
+     *
+     * @throws IllegalStateException if a service failed to start or the timeout elapsed
+     */
+    public StartupReport start(long timeout, TimeUnit unit) {
+        CompletableFuture<Void> eager = startAsync();
+        try {
+            if (timeout > 0) {
+                eager.get(timeout, unit);
+            } else {
+                eager.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting " + pending(), e);
+        } catch (TimeoutException e) {
+            System.out.println("[NeskAPI] " + getReport());
+            throw new IllegalStateException("Timed out while starting " + pending());
+        } catch (ExecutionException e) {
+            System.out.println("[NeskAPI] " + getReport());
+            throw new IllegalStateException("Startup failed", e.getCause());
+        }
+
+        StartupReport report = getReport();
+        System.out.println("[NeskAPI] " + report);
+        return report;
+    }
+
+    /**
+     * Starts the eager services without waiting for them.
+     *
+     * @return completed once every eager service has started, or exceptionally with the first failure
+     */
+    public CompletableFuture<Void> startAsync() {
+        List<Service<?>> eager = new ArrayList<>();
+        synchronized (this) {
+            if (this.startedAt == 0) {
+                this.startedAt = System.nanoTime();
+            }
+            for (Service<?> service : this.services) {
+                if (!service.isLazy()) {
+                    eager.add(service);
+                }
+            }
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[eager.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = eager.get(i).start();
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        // allOf waits for every service even after a failure, report the first one right away
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    all.completeExceptionally(error);
+                }
+            });
+        }
+        return all;
+    }
+
+    /**
+     * @return the timings of the services so far, lazy ones included
+     */
+    public StartupReport getReport() {
+        long origin = this.startedAt;
+        List<Service<?>> services = getServices();
+        if (origin == 0) {
+            origin = System.nanoTime();
+        }
+        return StartupReport.of(origin, services);
+    }
+
+    /**
+     * Closes the started services implementing {@link AutoCloseable}, in the reverse order they started.
+     */
+    @Override
+    public void close() {
+        List<Map.Entry<Service<?>, Object>> started;
+        synchronized (this) {
+            started = new ArrayList<>(this.started);
+            this.started.clear();
+        }
+        Collections.reverse(started);
+        for (Map.Entry<Service<?>, Object> entry : started) {
+            if (entry.getValue() instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) entry.getValue()).close();
+                } catch (Exception e) {
+                    System.out.println("[NeskAPI] Failed to close service '" + entry.getKey().getName() + "': " + e);
+                }
+            }
+        }
+    }
+
+    synchronized void onStarted(Service<?> service, Object instance) {
+        this.started.add(new AbstractMap.SimpleImmutableEntry<>(service, instance));
+    }
+
+    private <T> Service<T> add(String name, boolean lazy, Service.Factory<T> factory, Service<?>... dependencies) {
+        for (Service<?> service : this.services) {
+            if (service.getName().equals(name)) {
+                throw new IllegalArgumentException("A service named '" + name + "' is already registered");
+            }
+        }
+        for (Service<?> dependency : dependencies) {
+            if (!this.services.contains(dependency)) {
+                throw new IllegalArgumentException("Dependency '" + dependency.getName() + "' of '" + name
+                        + "' is not registered in this bootstrap");
+            }
+        }
+        Service<T> service = new Service<>(this, name, lazy, factory, Arrays.asList(dependencies.clone()));
+        this.services.add(service);
+        return service;
+    }
+
+    private String pending() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Service<?> service : getServices()) {
+            if (!service.isLazy() && !service.getFuture().isDone()) {
+                joiner.add(service.getName());
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -7,12 +7,15 @@ import io.neskdev.api.rank.RankRepository;
 
 public abstract class NeskAPI {
 
-    private static NeskAPI instance;
+    private static volatile NeskAPI instance;
 
     public static NeskAPI get() {
         return instance;
     }
 
+    /**
+     * Publishes the instance to every thread, usually once its {@link Bootstrap} has started.
+     */
     public static void set(NeskAPI instance) {
         NeskAPI.instance = instance;
     }
@@ -0,0 +1,140 @@
+package io.neskdev.api;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Component brought up by a {@link Bootstrap}, once all its dependencies are.
+ * <p>
+ * Eager services start with {@link Bootstrap#start()}; lazy ones on the first {@link #get()}, or when an
+ * eager service depends on them.
+ */
+public final class Service<T> {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final boolean lazy;
+    @Getter
+    private final List<Service<?>> dependencies;
+    private final Factory<T> factory;
+    private final Bootstrap bootstrap;
+
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final AtomicBoolean triggered = new AtomicBoolean();
+
+    // System.nanoTime() of each step, 0 until reached
+    volatile long triggeredAt;
+    volatile long startedAt;
+    volatile long finishedAt;
+
+    Service(Bootstrap bootstrap, String name, boolean lazy, Factory<T> factory, List<Service<?>> dependencies) {
+        this.bootstrap = bootstrap;
+        this.name = name;
+        this.lazy = lazy;
+        this.factory = factory;
+        this.dependencies = Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * @return the instance, started first if the service is lazy and waiting for it if it is still starting
+     * @throws IllegalStateException if the service or one of its dependencies failed to start
+     */
+    public T get() {
+        try {
+            return start().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Service '" + this.name + "' failed to start", e.getCause());
+        }
+    }
+
+    /**
+     * @return the instance once started, starting the service if it is lazy
+     */
+    public CompletableFuture<T> getFuture() {
+        return start();
+    }
+
+    public boolean isReady() {
+        return this.future.isDone() && !this.future.isCompletedExceptionally();
+    }
+
+    public boolean isFailed() {
+        return this.future.isCompletedExceptionally();
+    }
+
+    /**
+     * @return the time spent in the factory, in nanoseconds, or -1 if it has not returned yet
+     */
+    public long getInitNanos() {
+        long finished = this.finishedAt;
+        return finished == 0 ? -1 : finished - this.startedAt;
+    }
+
+    CompletableFuture<T> start() {
+        if (!this.triggered.compareAndSet(false, true)) {
+            return this.future;
+        }
+        this.triggeredAt = System.nanoTime();
+
+        CompletableFuture<?>[] required = new CompletableFuture<?>[this.dependencies.size()];
+        for (int i = 0; i < required.length; i++) {
+            required[i] = this.dependencies.get(i).start();
+        }
+        CompletableFuture.allOf(required).whenComplete((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                fail(new IllegalStateException("A dependency of '" + this.name + "' failed to start", cause));
+                return;
+            }
+            try {
+                this.bootstrap.getExecutor().execute(this::create);
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        });
+        return this.future;
+    }
+
+    private void create() {
+        this.startedAt = System.nanoTime();
+        T instance;
+        try {
+            instance = this.factory.create();
+        } catch (Throwable t) {
+            fail(t);
+            return;
+        }
+        this.finishedAt = System.nanoTime();
+        this.bootstrap.onStarted(this, instance);
+        this.future.complete(instance);
+    }
+
+    private void fail(Throwable error) {
+        if (this.startedAt == 0) {
+            this.startedAt = System.nanoTime();
+        }
+        this.finishedAt = System.nanoTime();
+        this.future.completeExceptionally(error);
+    }
+
+    @Override
+    public String toString() {
+        return "Service{" + this.name + "}";
+    }
+
+    /**
+     * Creates the instance of a service, connecting and warming it up. Runs on the bootstrap executor, so it
+     * may block.
+     */
+    @FunctionalInterface
+    public interface Factory<T> {
+        T create() throws Exception;
+    }
+}
@@ -0,0 +1,129 @@
+package io.neskdev.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent starting each service of a {@link Bootstrap}, printed once {@link Bootstrap#start()} returns.
+ * <p>
+ * Times are in nanoseconds, measured from the call to {@link Bootstrap#start()}. The gap between the wall
+ * time and the sum of the initialization times is what running the services in parallel saved.
+ */
+@Getter
+@AllArgsConstructor
+public class StartupReport {
+
+    /**
+     * Time until the last started service was up.
+     */
+    private final long wallNanos;
+    /**
+     * Sum of the initialization times, i.e. the startup time if the services had started one after another.
+     */
+    private final long initNanos;
+    private final List<Entry> entries;
+
+    static StartupReport of(long origin, List<Service<?>> services) {
+        List<Entry> entries = new ArrayList<>(services.size());
+        long wall = 0;
+        long init = 0;
+        for (Service<?> service : services) {
+            long triggered = service.triggeredAt;
+            long started = service.startedAt;
+            long finished = service.finishedAt;
+
+            State state;
+            if (triggered == 0) {
+                state = State.NOT_STARTED;
+            } else if (started == 0) {
+                state = State.WAITING;
+            } else if (finished == 0) {
+                state = State.STARTING;
+            } else {
+                state = service.isFailed() ? State.FAILED : State.READY;
+            }
+
+            long offset = started == 0 ? -1 : started - origin;
+            long waited = triggered == 0 ? 0 : (started == 0 ? System.nanoTime() : started) - triggered;
+            long duration = started == 0 ? 0 : (finished == 0 ? System.nanoTime() : finished) - started;
+            if (finished != 0) {
+                wall = Math.max(wall, finished - origin);
+                init += duration;
+            }
+            entries.add(new Entry(service.getName(), service.isLazy(), state, offset, waited, duration));
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.getOffsetNanos() < 0 ? Long.MAX_VALUE : entry.getOffsetNanos()));
+        return new StartupReport(wall, init, Collections.unmodifiableList(entries));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Startup in ").append(millis(this.wallNanos)).append(" ms (")
+                .append(millis(this.initNanos)).append(" ms of initialization)");
+        int width = 0;
+        for (Entry entry : this.entries) {
+            width = Math.max(width, entry.getName().length());
+        }
+
+        for (Entry entry : this.entries) {
+            builder.append("\n  ").append(entry.getName());
+            for (int i = entry.getName().length(); i < width + 2; i++) {
+                builder.append(' ');
+            }
+            if (entry.getState() == State.NOT_STARTED) {
+                builder.append(entry.isLazy() ? "lazy, not started" : "not started");
+                continue;
+            }
+            builder.append(entry.getState());
+            if (entry.getOffsetNanos() >= 0) {
+                builder.append(" at +").append(millis(entry.getOffsetNanos())).append(" ms, took ")
+                        .append(millis(entry.getInitNanos())).append(" ms");
+            }
+            if (TimeUnit.NANOSECONDS.toMillis(entry.getWaitNanos()) > 0) {
+                builder.append(", waited ").append(millis(entry.getWaitNanos())).append(" ms");
+            }
+            if (entry.isLazy()) {
+                builder.append(" (lazy)");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public enum State {
+        NOT_STARTED,
+        /**
+         * Waiting for its dependencies or a thread.
+         */
+        WAITING,
+        STARTING,
+        READY,
+        FAILED
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final String name;
+        private final boolean lazy;
+        private final State state;
+        /**
+         * When its factory was called, or -1 if it has not been yet.
+         */
+        private final long offsetNanos;
+        /**
+         * Time between being needed and its factory being called, waiting for its dependencies and a thread.
+         */
+        private final long waitNanos;
+        private final long initNanos;
+    }
+}
@@ -0,0 +1,100 @@
+package io.neskdev.api.database;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.InsertOneResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous view of a {@link MongoCollection}, obtained from {@link AsyncMongo#getCollection}.
+ */
+public class AsyncCollection<T> {
+
+    private final AsyncMongo mongo;
+    private final MongoCollection<T> collection;
+
+    AsyncCollection(AsyncMongo mongo, MongoCollection<T> collection) {
+        this.mongo = mongo;
+        this.collection = collection;
+    }
+
+    public MongoCollection<T> getCollection() {
+        return this.collection;
+    }
+
+    public CompletableFuture<List<T>> find(Bson filter) {
+        return this.mongo.submit(client -> this.collection.find(filter)
+                .maxTime(this.mongo.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+    }
+
+    public CompletableFuture<List<T>> find(Bson filter, int limit) {
+        return this.mongo.submit(client -> this.collection.find(filter)
+                .limit(limit)
+                .maxTime(this.mongo.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+    }
+
+    /**
+     * @return the first matching document, or null
+     */
+    public CompletableFuture<T> findFirst(Bson filter) {
+        return this.mongo.submit(client -> this.collection.find(filter)
+                .maxTime(this.mongo.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .first());
+    }
+
+    public CompletableFuture<Long> count(Bson filter) {
+        return this.mongo.submit(client -> this.collection.countDocuments(filter,
+                new CountOptions().maxTime(this.mongo.getTimeoutMillis(), TimeUnit.MILLISECONDS)));
+    }
+
+    public CompletableFuture<InsertOneResult> insertOne(T document) {
+        return this.mongo.submit(client -> this.collection.insertOne(document));
+    }
+
+    public CompletableFuture<InsertManyResult> insertMany(List<? extends T> documents) {
+        return this.mongo.submit(client -> this.collection.insertMany(documents));
+    }
+
+    public CompletableFuture<UpdateResult> updateOne(Bson filter, Bson update) {
+        return this.mongo.submit(client -> this.collection.updateOne(filter, update));
+    }
+
+    public CompletableFuture<UpdateResult> updateOne(Bson filter, Bson update, UpdateOptions options) {
+        return this.mongo.submit(client -> this.collection.updateOne(filter, update, options));
+    }
+
+    public CompletableFuture<UpdateResult> updateMany(Bson filter, Bson update) {
+        return this.mongo.submit(client -> this.collection.updateMany(filter, update));
+    }
+
+    public CompletableFuture<UpdateResult> replaceOne(Bson filter, T document, ReplaceOptions options) {
+        return this.mongo.submit(client -> this.collection.replaceOne(filter, document, options));
+    }
+
+    public CompletableFuture<DeleteResult> deleteOne(Bson filter) {
+        return this.mongo.submit(client -> this.collection.deleteOne(filter));
+    }
+
+    public CompletableFuture<DeleteResult> deleteMany(Bson filter) {
+        return this.mongo.submit(client -> this.collection.deleteMany(filter));
+    }
+
+    public CompletableFuture<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends T>> requests) {
+        return this.mongo.submit(client -> this.collection.bulkWrite(requests));
+    }
+
+    public CompletableFuture<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends T>> requests, BulkWriteOptions options) {
+        return this.mongo.submit(client -> this.collection.bulkWrite(requests, options));
+    }
+}
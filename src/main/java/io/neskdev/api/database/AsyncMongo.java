@@ -0,0 +1,108 @@
+package io.neskdev.api.database;
+
+import com.mongodb.client.MongoClient;
+import io.neskdev.api.utils.VirtualThreads;
+import org.bson.Document;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Non-blocking facade over the synchronous Mongo driver.
+ * <p>
+ * Operations run on a dedicated executor (virtual threads when available), never on
+ * {@link ForkJoinPool#commonPool()}, so that slow queries cannot starve CPU-bound work. At most
+ * {@code maxInFlight} operations run at once, and every returned future fails with a
+ * {@link TimeoutException} once the operation timeout is exceeded.
+ */
+public class AsyncMongo implements AutoCloseable {
+
+    // Instances created for implementations of DatabaseManager that do not provide one
+    private static final Map<MongoClient, AsyncMongo> SHARED = new ConcurrentHashMap<>();
+
+    private final MongoClient client;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long timeoutMillis;
+
+    public AsyncMongo(MongoClient client) {
+        this(client, 64, 10, TimeUnit.SECONDS);
+    }
+
+    public AsyncMongo(MongoClient client, int maxInFlight, long timeout, TimeUnit unit) {
+        this.client = client;
+        this.executor = VirtualThreads.newExecutor("NeskAPI-Mongo", maxInFlight);
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * @return the instance with the default settings shared by every caller of this client, created on first use
+     */
+    public static AsyncMongo shared(MongoClient client) {
+        return SHARED.computeIfAbsent(client, AsyncMongo::new);
+    }
+
+    /**
+     * Runs an arbitrary operation against the client.
+     */
+    public <T> CompletableFuture<T> submit(Function<MongoClient, T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            this.executor.execute(() -> {
+                boolean acquired = false;
+                try {
+                    acquired = this.permits.tryAcquire(this.timeoutMillis, TimeUnit.MILLISECONDS);
+                    if (!acquired) {
+                        future.completeExceptionally(new TimeoutException("No Mongo permit available after " + this.timeoutMillis + "ms"));
+                    } else if (!future.isDone()) {
+                        future.complete(operation.apply(this.client));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                } finally {
+                    if (acquired) {
+                        this.permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future.orTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public AsyncCollection<Document> getCollection(String database, String collection) {
+        return getCollection(database, collection, Document.class);
+    }
+
+    public <T> AsyncCollection<T> getCollection(String database, String collection, Class<T> documentClass) {
+        return new AsyncCollection<>(this, this.client.getDatabase(database).getCollection(collection, documentClass));
+    }
+
+    public int getInFlightCount() {
+        return Math.max(0, this.maxInFlight - this.permits.availablePermits());
+    }
+
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    @Override
+    public void close() {
+        SHARED.remove(this.client, this);
+        this.executor.shutdown();
+    }
+}
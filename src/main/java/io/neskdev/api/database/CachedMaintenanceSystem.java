@@ -0,0 +1,209 @@
+package io.neskdev.api.database;
+
+import io.neskdev.api.utils.AsyncUtils;
+import io.neskdev.api.utils.UuidSet;
+import io.neskdev.api.utils.math.RandomStringUtils;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MaintenanceSystem} decorator answering login checks from memory.
+ * <p>
+ * The maintenance flag and the allowlist are loaded once, then kept up to date through a Redis change feed
+ * on {@link #CHANNEL}, fed by every node's {@link #setMaintenance(boolean)}, {@link #addAllowedPlayer(UUID)}
+ * and {@link #removeAllowedPlayer(UUID)}. A full resynchronization runs periodically and after every
+ * reconnection, in case a change was missed. {@link #isAllowed(UUID)} and {@link #hasPermission(UUID)} are
+ * answered from the allowlist, unless the delegate does not list its players through
+ * {@link #getAllowedPlayers()}, in which case they still go to the delegate.
+ */
+public class CachedMaintenanceSystem implements MaintenanceSystem, AutoCloseable {
+
+    public static final String CHANNEL = "neskapi:maintenance";
+
+    private static final char SET_MAINTENANCE = 'M';
+    private static final char ADD_PLAYER = 'A';
+    private static final char REMOVE_PLAYER = 'R';
+
+    private final MaintenanceSystem delegate;
+    private final DatabaseManager databaseManager;
+    private final String nodeId = RandomStringUtils.generate(12);
+    private final Object writeLock = new Object();
+    private final AtomicLong version = new AtomicLong();
+    // Changes waiting to be broadcast, by a single task at a time
+    private final Queue<String> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean publishing = new AtomicBoolean();
+
+    private volatile boolean maintenance;
+    private volatile UuidSet allowedPlayers = UuidSet.EMPTY;
+    // Cleared if the delegate cannot list its allowed players
+    private volatile boolean allowlistCached = true;
+
+    private final RedisSubscription subscription;
+    private final long resyncTaskId;
+
+    public CachedMaintenanceSystem(MaintenanceSystem delegate, DatabaseManager databaseManager, long resyncInterval, TimeUnit unit) {
+        this.delegate = delegate;
+        this.databaseManager = databaseManager;
+
+        reload();
+        this.subscription = new RedisSubscription(databaseManager, (channel, message) -> onChange(message), CHANNEL)
+                .onSubscribe(() -> AsyncUtils.runIo(this::reload))
+                .start();
+        this.resyncTaskId = AsyncUtils.runRepeating(this::reload, resyncInterval, resyncInterval, unit, AsyncUtils.Mode.IO);
+    }
+
+    @Override
+    public boolean isMaintenance() {
+        return this.maintenance;
+    }
+
+    @Override
+    public void setMaintenance(boolean status) {
+        this.delegate.setMaintenance(status);
+        synchronized (this.writeLock) {
+            this.maintenance = status;
+            this.version.incrementAndGet();
+            publish(SET_MAINTENANCE, status ? "1" : "0");
+        }
+    }
+
+    @Override
+    public void addAllowedPlayer(UUID uuid) {
+        this.delegate.addAllowedPlayer(uuid);
+        synchronized (this.writeLock) {
+            applyAdd(uuid);
+            publish(ADD_PLAYER, uuid.toString());
+        }
+    }
+
+    @Override
+    public void removeAllowedPlayer(UUID uuid) {
+        this.delegate.removeAllowedPlayer(uuid);
+        synchronized (this.writeLock) {
+            applyRemove(uuid);
+            publish(REMOVE_PLAYER, uuid.toString());
+        }
+    }
+
+    @Override
+    public boolean isAllowed(UUID uuid) {
+        return this.allowlistCached ? this.allowedPlayers.contains(uuid) : this.delegate.isAllowed(uuid);
+    }
+
+    @Override
+    public boolean hasPermission(UUID uuid) {
+        return this.allowlistCached ? this.allowedPlayers.contains(uuid) : this.delegate.hasPermission(uuid);
+    }
+
+    @Override
+    public Optional<Collection<UUID>> getAllowedPlayers() {
+        return this.allowlistCached ? Optional.of(this.allowedPlayers.toSet()) : this.delegate.getAllowedPlayers();
+    }
+
+    /**
+     * Reloads the flag and the allowlist from the delegate.
+     */
+    public void reload() {
+        long expectedVersion = this.version.get();
+        boolean loadedMaintenance = this.delegate.isMaintenance();
+        UuidSet loadedPlayers = null;
+        if (this.allowlistCached) {
+            Optional<Collection<UUID>> listed = this.delegate.getAllowedPlayers();
+            if (listed.isPresent()) {
+                loadedPlayers = UuidSet.of(listed.get());
+            } else {
+                this.allowlistCached = false;
+            }
+        }
+
+        synchronized (this.writeLock) {
+            // A change was applied while loading: the loaded state may already be stale
+            if (this.version.get() != expectedVersion) {
+                return;
+            }
+            this.maintenance = loadedMaintenance;
+            if (loadedPlayers != null) {
+                this.allowedPlayers = loadedPlayers;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        AsyncUtils.stopTask(this.resyncTaskId);
+        this.subscription.close();
+    }
+
+    private void onChange(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || separator + 1 >= message.length() || message.substring(0, separator).equals(this.nodeId)) {
+            return;
+        }
+
+        String payload = message.substring(separator + 2);
+        switch (message.charAt(separator + 1)) {
+            case SET_MAINTENANCE:
+                synchronized (this.writeLock) {
+                    this.maintenance = payload.equals("1");
+                    this.version.incrementAndGet();
+                }
+                break;
+            case ADD_PLAYER:
+                applyAdd(UUID.fromString(payload));
+                break;
+            case REMOVE_PLAYER:
+                applyRemove(UUID.fromString(payload));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void applyAdd(UUID uuid) {
+        synchronized (this.writeLock) {
+            this.allowedPlayers = this.allowedPlayers.with(uuid);
+            this.version.incrementAndGet();
+        }
+    }
+
+    private void applyRemove(UUID uuid) {
+        synchronized (this.writeLock) {
+            this.allowedPlayers = this.allowedPlayers.without(uuid);
+            this.version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues the broadcast of a change. Called under the write lock, so that the changes leave in the order
+     * they were applied: they carry absolute values, and the last one received wins on the other nodes.
+     */
+    private void publish(char operation, String payload) {
+        this.outbox.add(this.nodeId + ":" + operation + payload);
+        if (this.publishing.compareAndSet(false, true)) {
+            AsyncUtils.runIo(this::drainOutbox);
+        }
+    }
+
+    private void drainOutbox() {
+        do {
+            String message;
+            while ((message = this.outbox.poll()) != null) {
+                try {
+                    String current = message;
+                    this.databaseManager.useRedis(jedis -> jedis.publish(CHANNEL, current));
+                } catch (Exception e) {
+                    System.out.println("[NeskAPI] Unable to broadcast a maintenance change: " + e);
+                }
+            }
+            this.publishing.set(false);
+            // A change queued after the last poll saw the flag still set, and relies on this task
+        } while (!this.outbox.isEmpty() && this.publishing.compareAndSet(false, true));
+    }
+}
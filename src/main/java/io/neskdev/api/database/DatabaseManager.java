@@ -2,9 +2,96 @@ package io.neskdev.api.database;
 
 import com.mongodb.client.MongoClient;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public interface DatabaseManager {
+
+    /**
+     * Single shared connection. {@link Jedis} is not thread-safe: prefer {@link #withRedis(Function)}.
+     */
     Jedis getJedis();
+
+    /**
+     * Connection pool, usually created with {@link RedisPoolSettings#createPool}, or null if the implementation
+     * only provides {@link #getJedis()}: {@link #withRedis(Function)} then runs the actions one at a time on
+     * the shared connection.
+     */
+    default JedisPool getJedisPool() {
+        return null;
+    }
+
+    /**
+     * Opens a connection for blocking commands such as SUBSCRIBE, which cannot share a connection with
+     * other commands. The default creates it with the settings of {@link #getJedisPool()}, but outside of the
+     * pool, so that long-lived subscriptions do not hold pooled connections. The caller must close it.
+     * <p>
+     * Implementations without a pool must override this method: the shared connection of {@link #getJedis()}
+     * does not expose its address nor credentials, and subscribing on it would block every other command.
+     * {@link RedisSubscription#start()}, and so every cache kept up to date through Redis, fails otherwise.
+     *
+     * @throws UnsupportedOperationException if there is no pool and the implementation does not override this
+     *                                       method
+     */
+    default Jedis openJedis() {
+        JedisPool pool = getJedisPool();
+        if (pool == null) {
+            throw new UnsupportedOperationException("Opening dedicated Redis connections requires getJedisPool() or openJedis()");
+        }
+        try {
+            // The factory of the pool connects, authenticates and selects the database, but does not track the connection
+            return pool.getFactory().makeObject().getObject();
+        } catch (JedisException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JedisConnectionException("Unable to open a Redis connection", e);
+        }
+    }
+
+    /**
+     * Runs the action with a pooled connection, returned to the pool afterwards.
+     */
+    default <T> T withRedis(Function<Jedis, T> action) {
+        JedisPool pool = getJedisPool();
+        if (pool == null) {
+            Jedis shared = getJedis();
+            synchronized (shared) {
+                return action.apply(shared);
+            }
+        }
+        try (Jedis jedis = pool.getResource()) {
+            return action.apply(jedis);
+        }
+    }
+
+    default void useRedis(Consumer<Jedis> action) {
+        withRedis(jedis -> {
+            action.accept(jedis);
+            return null;
+        });
+    }
+
+    /**
+     * @return the statistics of {@link #getJedisPool()}, or null if there is no pool
+     */
+    default RedisPoolStats getRedisPoolStats() {
+        JedisPool pool = getJedisPool();
+        return pool != null ? RedisPoolStats.of(pool) : null;
+    }
+
     MongoClient getMongoClient();
+
+    /**
+     * Non-blocking access to {@link #getMongoClient()}, running on its own executor rather than the common pool.
+     * The default creates it on first use with the default settings, and reuses it for the same client.
+     */
+    default AsyncMongo getAsyncMongo() {
+        return AsyncMongo.shared(getMongoClient());
+    }
+
     MaintenanceSystem getMaintenanceSystem();
 }
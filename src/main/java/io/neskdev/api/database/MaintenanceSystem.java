@@ -1,5 +1,7 @@
 package io.neskdev.api.database;
 
+import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface MaintenanceSystem {
@@ -11,4 +13,15 @@ public interface MaintenanceSystem {
     boolean isAllowed(UUID uuid);
     boolean hasPermission(UUID uuid);
 
+    /**
+     * Lists every allowed player, so that {@link CachedMaintenanceSystem} can answer {@link #isAllowed(UUID)}
+     * and {@link #hasPermission(UUID)} from memory. An implementation listing them must grant
+     * {@link #hasPermission(UUID)} to exactly these players.
+     *
+     * @return the allowed players, or empty if the implementation cannot list them, the default
+     */
+    default Optional<Collection<UUID>> getAllowedPlayers() {
+        return Optional.empty();
+    }
+
 }
@@ -0,0 +1,123 @@
+package io.neskdev.api.database;
+
+import io.neskdev.api.utils.AsyncUtils;
+import io.neskdev.api.utils.ServerInfo;
+import io.neskdev.api.utils.math.IdGenerator;
+import io.neskdev.api.utils.math.RandomStringUtils;
+import lombok.Getter;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node id of {@link IdGenerator} held exclusively by this server, for networks where ids are not assigned by
+ * configuration.
+ * <p>
+ * Every id is a Redis key {@code neskapi:node-id:<id>} set only if absent, with an expiry renewed in the
+ * background as long as the lease is held. The search starts from a shared counter, so that servers starting
+ * together do not compete for the same ids. A renewal finding the key taken by another server logs the loss
+ * loudly, since ids generated from then on may collide; an expired key is taken back if it is still free.
+ */
+public final class NodeIdLease implements AutoCloseable {
+
+    public static final String KEY_PREFIX = "neskapi:node-id:";
+
+    private static final String COUNTER_KEY = KEY_PREFIX + "next";
+    private static final long DEFAULT_TTL_MILLIS = 30_000;
+    // Renews the expiry if the key is still ours, takes it back if it expired
+    private static final String RENEW_SCRIPT =
+            "local owner = redis.call('get', KEYS[1]) "
+                    + "if owner == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end "
+                    + "if not owner then redis.call('set', KEYS[1], ARGV[1], 'px', ARGV[2]) return 1 end "
+                    + "return 0";
+    private static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0";
+
+    private final DatabaseManager databaseManager;
+    @Getter
+    private final int nodeId;
+    private final String key;
+    private final String owner;
+    private final long ttlMillis;
+    private final long renewTaskId;
+    private volatile boolean lost;
+
+    private NodeIdLease(DatabaseManager databaseManager, int nodeId, String owner, long ttlMillis) {
+        this.databaseManager = databaseManager;
+        this.nodeId = nodeId;
+        this.key = KEY_PREFIX + nodeId;
+        this.owner = owner;
+        this.ttlMillis = ttlMillis;
+        long period = Math.max(1, ttlMillis / 3);
+        this.renewTaskId = AsyncUtils.runRepeating("node-id-lease", this::renew, period, period, TimeUnit.MILLISECONDS, AsyncUtils.Mode.IO);
+    }
+
+    public static NodeIdLease acquire(DatabaseManager databaseManager) {
+        return acquire(databaseManager, DEFAULT_TTL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leases the first free node id.
+     *
+     * @param ttl how long the id stays leased after this server stops renewing it
+     * @throws IllegalStateException if every node id is leased
+     */
+    public static NodeIdLease acquire(DatabaseManager databaseManager, long ttl, TimeUnit unit) {
+        long ttlMillis = unit.toMillis(ttl);
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttl must be at least a millisecond");
+        }
+        String owner = ServerInfo.getServerName() + "/" + RandomStringUtils.generate(12);
+        int nodeId = databaseManager.withRedis(jedis -> {
+            long start = jedis.incr(COUNTER_KEY);
+            SetParams params = SetParams.setParams().nx().px(ttlMillis);
+            for (int i = 0; i <= IdGenerator.MAX_NODE_ID; i++) {
+                int candidate = (int) ((start + i) & IdGenerator.MAX_NODE_ID);
+                if ("OK".equals(jedis.set(KEY_PREFIX + candidate, owner, params))) {
+                    return candidate;
+                }
+            }
+            return -1;
+        });
+        if (nodeId < 0) {
+            throw new IllegalStateException("Every node id is leased, " + (IdGenerator.MAX_NODE_ID + 1) + " servers at most");
+        }
+        return new NodeIdLease(databaseManager, nodeId, owner, ttlMillis);
+    }
+
+    /**
+     * @return true if another server took this node id since it was leased
+     */
+    public boolean isLost() {
+        return this.lost;
+    }
+
+    /**
+     * Stops renewing the lease and frees the node id. Ids must no longer be generated with it.
+     */
+    @Override
+    public void close() {
+        AsyncUtils.stopTask(this.renewTaskId);
+        try {
+            this.databaseManager.useRedis(jedis -> jedis.eval(RELEASE_SCRIPT, List.of(this.key), List.of(this.owner)));
+        } catch (Exception e) {
+            System.out.println("[NeskAPI] Unable to release node id " + this.nodeId + ", it expires on its own: " + e.getMessage());
+        }
+    }
+
+    private void renew() {
+        Object result;
+        try {
+            result = this.databaseManager.withRedis(jedis ->
+                    jedis.eval(RENEW_SCRIPT, List.of(this.key), List.of(this.owner, Long.toString(this.ttlMillis))));
+        } catch (Exception e) {
+            System.out.println("[NeskAPI] Unable to renew the lease of node id " + this.nodeId + ": " + e.getMessage());
+            return;
+        }
+        if (Long.valueOf(0).equals(result) && !this.lost) {
+            this.lost = true;
+            System.out.println("[NeskAPI] Lost the lease of node id " + this.nodeId + " to another server: generated ids may collide");
+        }
+    }
+}
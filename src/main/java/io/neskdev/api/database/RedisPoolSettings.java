@@ -0,0 +1,74 @@
+package io.neskdev.api.database;
+
+import lombok.Getter;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the Redis connection pool behind {@link DatabaseManager#getJedisPool()}.
+ * <p>
+ * Subscriptions use dedicated connections from {@link DatabaseManager#openJedis()}, which are not part of
+ * {@code maxTotal}.
+ */
+@Getter
+public class RedisPoolSettings {
+
+    private int maxTotal = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private int maxIdle = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private int minIdle = 2;
+    private Duration borrowTimeout = Duration.ofSeconds(2);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration minEvictableIdleTime = Duration.ofMinutes(1);
+
+    public RedisPoolSettings setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+        return this;
+    }
+
+    public RedisPoolSettings setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+        return this;
+    }
+
+    public RedisPoolSettings setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+        return this;
+    }
+
+    /**
+     * Maximum time a caller waits for a connection when the pool is exhausted.
+     */
+    public RedisPoolSettings setBorrowTimeout(Duration borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+        return this;
+    }
+
+    /**
+     * Idle connections are checked at this interval, and closed once idle for {@code minEvictableIdleTime}.
+     */
+    public RedisPoolSettings setIdleEviction(Duration evictionInterval, Duration minEvictableIdleTime) {
+        this.evictionInterval = evictionInterval;
+        this.minEvictableIdleTime = minEvictableIdleTime;
+        return this;
+    }
+
+    public JedisPoolConfig toPoolConfig() {
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(this.maxTotal);
+        config.setMaxIdle(this.maxIdle);
+        config.setMinIdle(this.minIdle);
+        config.setBlockWhenExhausted(true);
+        config.setMaxWait(this.borrowTimeout);
+        config.setTimeBetweenEvictionRuns(this.evictionInterval);
+        config.setMinEvictableIdleTime(this.minEvictableIdleTime);
+        config.setTestWhileIdle(true);
+        config.setJmxEnabled(false);
+        return config;
+    }
+
+    public JedisPool createPool(String host, int port, int timeoutMillis, String password) {
+        return new JedisPool(toPoolConfig(), host, port, timeoutMillis, password);
+    }
+}
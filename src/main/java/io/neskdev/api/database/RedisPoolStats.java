@@ -0,0 +1,41 @@
+package io.neskdev.api.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Point-in-time statistics of a Redis connection pool.
+ */
+@Getter
+@AllArgsConstructor
+public class RedisPoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final long meanBorrowWaitMillis;
+    private final long maxBorrowWaitMillis;
+    private final long borrowed;
+    private final long created;
+    private final long destroyed;
+
+    public static RedisPoolStats of(JedisPool pool) {
+        return new RedisPoolStats(
+                pool.getNumActive(),
+                pool.getNumIdle(),
+                pool.getNumWaiters(),
+                pool.getMeanBorrowWaitTimeMillis(),
+                pool.getMaxBorrowWaitTimeMillis(),
+                pool.getBorrowedCount(),
+                pool.getCreatedCount(),
+                pool.getDestroyedCount()
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "RedisPoolStats{active=" + active + ", idle=" + idle + ", waiters=" + waiters
+                + ", meanBorrowWaitMillis=" + meanBorrowWaitMillis + ", maxBorrowWaitMillis=" + maxBorrowWaitMillis + "}";
+    }
+}
@@ -0,0 +1,203 @@
+package io.neskdev.api.database;
+
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps a Redis subscription alive on a dedicated daemon thread.
+ * <p>
+ * The subscription uses its own connection from {@link DatabaseManager#openJedis()}, since a subscribed
+ * connection cannot run other commands. The first one is opened by {@link #start()}, which fails if the
+ * database manager cannot open any. If the connection drops it is re-opened with an exponential
+ * backoff, and the {@link #onSubscribe(Runnable)} callback runs again so that callers can resynchronize
+ * whatever they may have missed in the meantime. {@link #binary} subscriptions receive raw channel and message
+ * bytes instead of strings.
+ */
+public class RedisSubscription implements AutoCloseable {
+
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final DatabaseManager databaseManager;
+    private final BiConsumer<String, String> listener;
+    private final BiConsumer<byte[], byte[]> binaryListener;
+    private final String[] channels;
+    private final byte[][] binaryChannels;
+    private final Thread thread;
+
+    // Opened by start(), then used by the first iteration of the thread
+    private volatile Jedis initialConnection;
+    private volatile Runnable subscribeCallback;
+    private volatile JedisPubSub pubSub;
+    private volatile BinaryJedisPubSub binaryPubSub;
+    private volatile boolean running = true;
+
+    public RedisSubscription(DatabaseManager databaseManager, BiConsumer<String, String> listener, String... channels) {
+        this(databaseManager, listener, null, channels, null);
+    }
+
+    private RedisSubscription(DatabaseManager databaseManager, BiConsumer<String, String> listener,
+                              BiConsumer<byte[], byte[]> binaryListener, String[] channels, byte[][] binaryChannels) {
+        this.databaseManager = databaseManager;
+        this.listener = listener;
+        this.binaryListener = binaryListener;
+        this.channels = channels.clone();
+        this.binaryChannels = binaryChannels;
+        this.thread = new Thread(this::loop, "NeskAPI-Redis-" + String.join(",", channels));
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Subscription delivering raw message bytes, for binary payloads.
+     */
+    public static RedisSubscription binary(DatabaseManager databaseManager, BiConsumer<byte[], byte[]> listener, byte[]... channels) {
+        String[] names = new String[channels.length];
+        byte[][] copies = new byte[channels.length][];
+        for (int i = 0; i < channels.length; i++) {
+            names[i] = new String(channels[i], StandardCharsets.UTF_8);
+            copies[i] = channels[i].clone();
+        }
+        return new RedisSubscription(databaseManager, null, listener, names, copies);
+    }
+
+    /**
+     * Sets a callback run every time the subscription is (re-)established.
+     */
+    public RedisSubscription onSubscribe(Runnable callback) {
+        this.subscribeCallback = callback;
+        return this;
+    }
+
+    /**
+     * Opens the first connection and subscribes on the thread. If Redis cannot be reached yet, the thread keeps
+     * trying.
+     *
+     * @throws UnsupportedOperationException if the database manager cannot open dedicated connections, see
+     *                                       {@link DatabaseManager#openJedis()}
+     */
+    public RedisSubscription start() {
+        try {
+            this.initialConnection = this.databaseManager.openJedis();
+        } catch (UnsupportedOperationException e) {
+            this.running = false;
+            throw e;
+        } catch (Exception e) {
+            System.out.println("[NeskAPI] Unable to subscribe to " + String.join(",", this.channels) + " yet: " + e.getMessage());
+        }
+        this.thread.start();
+        return this;
+    }
+
+    public boolean isSubscribed() {
+        JedisPubSub current = this.pubSub;
+        BinaryJedisPubSub binary = this.binaryPubSub;
+        return current != null && current.isSubscribed() || binary != null && binary.isSubscribed();
+    }
+
+    private void loop() {
+        long backoff = MIN_BACKOFF_MILLIS;
+
+        while (this.running) {
+            Jedis initial = this.initialConnection;
+            this.initialConnection = null;
+            try (Jedis jedis = initial != null ? initial : this.databaseManager.openJedis()) {
+                if (this.binaryListener != null) {
+                    BinaryJedisPubSub current = createBinaryPubSub();
+                    this.binaryPubSub = current;
+                    if (!this.running) {
+                        break;
+                    }
+
+                    backoff = MIN_BACKOFF_MILLIS;
+                    jedis.subscribe(current, this.binaryChannels);
+                } else {
+                    JedisPubSub current = createPubSub();
+                    this.pubSub = current;
+                    if (!this.running) {
+                        break;
+                    }
+
+                    backoff = MIN_BACKOFF_MILLIS;
+                    jedis.subscribe(current, this.channels);
+                }
+            } catch (Exception e) {
+                if (!this.running) {
+                    break;
+                }
+                System.out.println("[NeskAPI] Redis subscription to " + String.join(",", this.channels) + " lost: " + e.getMessage());
+            }
+
+            if (this.running) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private JedisPubSub createPubSub() {
+        return new JedisPubSub() {
+            @Override
+            public void onMessage(String channel, String message) {
+                try {
+                    listener.accept(channel, message);
+                } catch (Exception e) {
+                    System.out.println("[NeskAPI] Error while handling a message on " + channel + ": " + e);
+                }
+            }
+
+            @Override
+            public void onSubscribe(String channel, int subscribedChannels) {
+                onSubscribed(subscribedChannels);
+            }
+        };
+    }
+
+    private BinaryJedisPubSub createBinaryPubSub() {
+        return new BinaryJedisPubSub() {
+            @Override
+            public void onMessage(byte[] channel, byte[] message) {
+                try {
+                    binaryListener.accept(channel, message);
+                } catch (Exception e) {
+                    System.out.println("[NeskAPI] Error while handling a message on "
+                            + new String(channel, StandardCharsets.UTF_8) + ": " + e);
+                }
+            }
+
+            @Override
+            public void onSubscribe(byte[] channel, int subscribedChannels) {
+                onSubscribed(subscribedChannels);
+            }
+        };
+    }
+
+    private void onSubscribed(int subscribedChannels) {
+        Runnable callback = this.subscribeCallback;
+        if (callback != null && subscribedChannels == this.channels.length) {
+            callback.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+
+        JedisPubSub current = this.pubSub;
+        if (current != null && current.isSubscribed()) {
+            current.unsubscribe();
+        }
+        BinaryJedisPubSub binary = this.binaryPubSub;
+        if (binary != null && binary.isSubscribed()) {
+            binary.unsubscribe();
+        }
+        this.thread.interrupt();
+    }
+}
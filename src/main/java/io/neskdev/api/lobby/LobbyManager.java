@@ -1,5 +1,6 @@
 package io.neskdev.api.lobby;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,8 +10,21 @@ public interface LobbyManager {
 
     List<Lobby> getLobbies();
 
+    /**
+     * Implementations are expected to delegate to a {@link LobbySelector} kept up to date with {@link #getLobbies()}.
+     */
     Lobby getBestLobby();
 
     void sendPlayerToLobby(UUID playerUniqueId, Lobby lobby);
 
+    /**
+     * Sends several players to the same lobby. Implementations should override it with a single batched
+     * transfer request; the default sends them one by one. See {@link LobbyTransferService} for pacing.
+     */
+    default void sendPlayersToLobby(Collection<UUID> playerUniqueIds, Lobby lobby) {
+        for (UUID playerUniqueId : playerUniqueIds) {
+            sendPlayerToLobby(playerUniqueId, lobby);
+        }
+    }
+
 }
@@ -0,0 +1,263 @@
+package io.neskdev.api.lobby;
+
+import io.neskdev.api.database.DatabaseManager;
+import io.neskdev.api.utils.AsyncUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cluster-wide view of every lobby, backed by Redis heartbeats.
+ * <p>
+ * Each node publishes its own {@link Lobby} with a single pipelined write, on a key expiring after a few
+ * missed heartbeats. The whole cluster is read back in one round trip, and the result is applied to a local
+ * snapshot, so that {@link #getLobbies()} and {@link #getLobby(String)} never block on I/O. A lobby whose key
+ * expired reports {@link Lobby#isOnline()} as false until it is dropped on the next refresh.
+ * <p>
+ * The read runs as a server-side script, loaded once and then called by its SHA1. It reads the lobby keys
+ * listed in the index, which are not declared upfront: the registry needs a standalone or Sentinel-managed
+ * Redis, not Redis Cluster.
+ */
+public class LobbyRegistry implements AutoCloseable {
+
+    public static final String INDEX_KEY = "neskapi:lobbies";
+    public static final String KEY_PREFIX = "neskapi:lobby:";
+
+    /**
+     * Returns a flat list of name/state pairs and forgets the lobbies whose heartbeat expired.
+     */
+    private static final String SNAPSHOT_SCRIPT =
+            "local names = redis.call('SMEMBERS', KEYS[1]) " +
+            "local result = {} " +
+            "for _, name in ipairs(names) do " +
+            "  local state = redis.call('GET', ARGV[1] .. name) " +
+            "  if not state then redis.call('SREM', KEYS[1], name) end " +
+            "  result[#result + 1] = name " +
+            "  result[#result + 1] = state " +
+            "end " +
+            "return result";
+
+    private final DatabaseManager databaseManager;
+    private final Lobby localLobby;
+    private final long ttlMillis;
+
+    private final ConcurrentMap<String, RemoteLobby> lobbies = new ConcurrentHashMap<>();
+    private volatile List<Lobby> lobbyList = List.of();
+    private volatile LobbySelector selector;
+    private volatile String scriptSha;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final long heartbeatTaskId;
+    private final long refreshTaskId;
+
+    /**
+     * @param localLobby the lobby hosted by this node, or null for nodes that only read the registry
+     */
+    public LobbyRegistry(DatabaseManager databaseManager, Lobby localLobby, long interval, TimeUnit unit) {
+        this.databaseManager = databaseManager;
+        this.localLobby = localLobby;
+        this.ttlMillis = unit.toMillis(interval) * 3;
+
+        this.heartbeatTaskId = localLobby != null ? AsyncUtils.runRepeating(this::heartbeat, 0, interval, unit, AsyncUtils.Mode.IO) : -1;
+        this.refreshTaskId = AsyncUtils.runRepeating(this::refresh, 0, interval, unit, AsyncUtils.Mode.IO);
+    }
+
+    /**
+     * Keeps the given selector up to date with every refresh.
+     */
+    public void setSelector(LobbySelector selector) {
+        this.selector = selector;
+        if (selector != null) {
+            selector.updateAll(this.lobbyList);
+        }
+    }
+
+    public Lobby getLobby(String name) {
+        return this.lobbies.get(name);
+    }
+
+    public List<Lobby> getLobbies() {
+        return this.lobbyList;
+    }
+
+    /**
+     * Publishes the state of the local lobby.
+     */
+    public void heartbeat() {
+        if (this.localLobby == null) {
+            return;
+        }
+
+        String name = this.localLobby.getName();
+        String state = this.localLobby.getOnlinePlayers() + ";" + this.localLobby.getMaxPlayers();
+
+        try {
+            this.databaseManager.useRedis(jedis -> {
+                Pipeline pipeline = jedis.pipelined();
+                pipeline.set(KEY_PREFIX + name, state, SetParams.setParams().px(this.ttlMillis));
+                pipeline.sadd(INDEX_KEY, name);
+                pipeline.sync();
+            });
+        } catch (Exception e) {
+            System.out.println("[NeskAPI] Unable to publish the heartbeat of lobby " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the whole cluster in one round trip and applies it to the local snapshot. Skipped if a refresh is
+     * still running.
+     */
+    public void refresh() {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Object reply;
+            try {
+                reply = this.databaseManager.withRedis(this::readSnapshot);
+            } catch (Exception e) {
+                System.out.println("[NeskAPI] Unable to refresh the lobby registry: " + e.getMessage());
+                return;
+            }
+            apply((List<?>) reply);
+        } finally {
+            this.refreshing.set(false);
+        }
+    }
+
+    private Object readSnapshot(Jedis jedis) {
+        String sha = this.scriptSha;
+        if (sha == null) {
+            sha = loadScript(jedis);
+        }
+        try {
+            return jedis.evalsha(sha, List.of(INDEX_KEY), List.of(KEY_PREFIX));
+        } catch (JedisNoScriptException e) {
+            // The script cache was flushed, or the server restarted or failed over
+            return jedis.evalsha(loadScript(jedis), List.of(INDEX_KEY), List.of(KEY_PREFIX));
+        }
+    }
+
+    private String loadScript(Jedis jedis) {
+        String sha = jedis.scriptLoad(SNAPSHOT_SCRIPT);
+        this.scriptSha = sha;
+        return sha;
+    }
+
+    @Override
+    public void close() {
+        AsyncUtils.stopTask(this.heartbeatTaskId);
+        AsyncUtils.stopTask(this.refreshTaskId);
+
+        if (this.localLobby != null) {
+            String name = this.localLobby.getName();
+            try {
+                this.databaseManager.useRedis(jedis -> {
+                    Pipeline pipeline = jedis.pipelined();
+                    pipeline.del(KEY_PREFIX + name);
+                    pipeline.srem(INDEX_KEY, name);
+                    pipeline.sync();
+                });
+            } catch (Exception e) {
+                System.out.println("[NeskAPI] Unable to unregister lobby " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void apply(List<?> reply) {
+        Set<String> seen = new HashSet<>(reply.size());
+        boolean membershipChanged = false;
+
+        for (int i = 0; i + 1 < reply.size(); i += 2) {
+            String name = (String) reply.get(i);
+            String state = (String) reply.get(i + 1);
+            seen.add(name);
+
+            RemoteLobby lobby = this.lobbies.get(name);
+            if (lobby == null) {
+                if (state == null) {
+                    continue;
+                }
+                lobby = new RemoteLobby(name);
+                this.lobbies.put(name, lobby);
+                membershipChanged = true;
+            }
+            lobby.update(state);
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (Iterator<RemoteLobby> iterator = this.lobbies.values().iterator(); iterator.hasNext(); ) {
+            RemoteLobby lobby = iterator.next();
+            if (!seen.contains(lobby.getName())) {
+                lobby.online = false;
+                iterator.remove();
+                removed.add(lobby.getName());
+            }
+        }
+
+        if (membershipChanged || !removed.isEmpty()) {
+            this.lobbyList = List.copyOf(this.lobbies.values());
+        }
+
+        LobbySelector current = this.selector;
+        if (current != null) {
+            for (RemoteLobby lobby : this.lobbies.values()) {
+                current.update(lobby);
+            }
+            for (String name : removed) {
+                current.remove(name);
+            }
+        }
+    }
+
+    private static final class RemoteLobby implements Lobby {
+        private final String name;
+        private volatile int onlinePlayers;
+        private volatile int maxPlayers;
+        private volatile boolean online;
+
+        private RemoteLobby(String name) {
+            this.name = name;
+        }
+
+        private void update(String state) {
+            if (state == null) {
+                this.online = false;
+                return;
+            }
+
+            int separator = state.indexOf(';');
+            this.onlinePlayers = Integer.parseInt(state, 0, separator, 10);
+            this.maxPlayers = Integer.parseInt(state, separator + 1, state.length(), 10);
+            this.online = true;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public int getOnlinePlayers() {
+            return this.onlinePlayers;
+        }
+
+        @Override
+        public int getMaxPlayers() {
+            return this.maxPlayers;
+        }
+
+        @Override
+        public boolean isOnline() {
+            return this.online;
+        }
+    }
+}
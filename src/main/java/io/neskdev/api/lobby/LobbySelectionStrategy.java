@@ -0,0 +1,39 @@
+package io.neskdev.api.lobby;
+
+/**
+ * Policy used by {@link LobbySelector} to pick a lobby. Called while the selector is locked.
+ */
+@FunctionalInterface
+public interface LobbySelectionStrategy {
+
+    /**
+     * Spreads players evenly: always the lobby with the lowest fill ratio.
+     */
+    LobbySelectionStrategy LEAST_LOADED = LobbySelector::leastLoaded;
+
+    /**
+     * Packs players: the fullest lobby that still has room, so that lobbies fill up one at a time.
+     */
+    LobbySelectionStrategy FILL_FIRST = LobbySelector::fullestWithRoom;
+
+    /**
+     * Samples two random lobbies and keeps the least loaded one, which avoids herding every
+     * node onto the same lobby when their views are slightly out of date.
+     */
+    LobbySelectionStrategy POWER_OF_TWO_CHOICES = selector -> {
+        Lobby first = selector.random();
+        Lobby second = selector.random();
+        double firstLoad = selector.getLoad(first);
+        double secondLoad = selector.getLoad(second);
+
+        if (Math.min(firstLoad, secondLoad) >= 1.0D) {
+            return selector.leastLoaded();
+        }
+        return firstLoad <= secondLoad ? first : second;
+    };
+
+    /**
+     * @return the chosen lobby, or null if none has room
+     */
+    Lobby select(LobbySelector selector);
+}
@@ -0,0 +1,290 @@
+package io.neskdev.api.lobby;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the lobby new players are sent to.
+ * <p>
+ * Online lobbies are kept ordered by fill ratio ({@code (online + reserved) / max}), so that updates and
+ * picks are {@code O(log n)}. Every pick reserves a slot on the chosen lobby until the player shows up in
+ * its player count, or until the reservation expires, so that a burst of joins is spread out instead of
+ * landing on the same lobby before counts refresh. All methods are thread-safe.
+ */
+public class LobbySelector {
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingDouble(entry -> entry.load)
+            .thenComparing(entry -> entry.name);
+
+    private final Object lock = new Object();
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Lobbies left out of the selection whatever their updates say, with the number of exclusions of each
+    private final Map<String, Integer> excluded = new HashMap<>();
+    private final TreeSet<Entry> byLoad = new TreeSet<>(ORDER);
+    private final List<Entry> available = new ArrayList<>();
+    private final Entry fullSentinel = new Entry(null, "");
+
+    private final long reservationTimeoutNanos;
+    private volatile LobbySelectionStrategy strategy;
+
+    public LobbySelector() {
+        this(LobbySelectionStrategy.LEAST_LOADED, 10, TimeUnit.SECONDS);
+    }
+
+    public LobbySelector(LobbySelectionStrategy strategy, long reservationTimeout, TimeUnit unit) {
+        this.strategy = strategy;
+        this.reservationTimeoutNanos = unit.toNanos(reservationTimeout);
+        this.fullSentinel.load = 1.0D;
+    }
+
+    public void setStrategy(LobbySelectionStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Inserts or refreshes a lobby from its current state. Offline and excluded lobbies are removed.
+     */
+    public void update(Lobby lobby) {
+        synchronized (this.lock) {
+            Entry entry = this.entries.get(lobby.getName());
+            if (!lobby.isOnline() || this.excluded.containsKey(lobby.getName())) {
+                if (entry != null) {
+                    detach(entry);
+                    this.entries.remove(entry.name);
+                }
+                return;
+            }
+
+            if (entry == null) {
+                entry = new Entry(lobby, lobby.getName());
+                this.entries.put(entry.name, entry);
+            } else {
+                detach(entry);
+                entry.lobby = lobby;
+            }
+
+            int online = lobby.getOnlinePlayers();
+            if (entry.reserved > 0) {
+                if (System.nanoTime() - entry.reservedAt > this.reservationTimeoutNanos) {
+                    entry.reserved = 0;
+                } else if (online > entry.online) {
+                    // Players that arrived since the last update consume their reservation
+                    entry.reserved = Math.max(0, entry.reserved - (online - entry.online));
+                }
+            }
+            entry.online = online;
+            entry.max = lobby.getMaxPlayers();
+            attach(entry);
+        }
+    }
+
+    public void updateAll(Collection<? extends Lobby> lobbies) {
+        synchronized (this.lock) {
+            for (Lobby lobby : lobbies) {
+                update(lobby);
+            }
+        }
+    }
+
+    public void remove(String name) {
+        synchronized (this.lock) {
+            Entry entry = this.entries.remove(name);
+            if (entry != null) {
+                detach(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes the lobby and ignores its updates until {@link #include(String)} is called as many times as this
+     * method, e.g. while it is being evacuated.
+     */
+    public void exclude(String name) {
+        synchronized (this.lock) {
+            this.excluded.merge(name, 1, Integer::sum);
+            remove(name);
+        }
+    }
+
+    /**
+     * Lifts an exclusion. The lobby comes back with its next update.
+     */
+    public void include(String name) {
+        synchronized (this.lock) {
+            this.excluded.computeIfPresent(name, (ignored, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public boolean isExcluded(String name) {
+        synchronized (this.lock) {
+            return this.excluded.containsKey(name);
+        }
+    }
+
+    /**
+     * Picks a lobby with the current strategy and reserves a slot on it.
+     *
+     * @return the lobby, or null if every online lobby is full
+     */
+    public Lobby select() {
+        return select(this.strategy);
+    }
+
+    public Lobby select(LobbySelectionStrategy strategy) {
+        synchronized (this.lock) {
+            Lobby lobby = strategy.select(this);
+            if (lobby == null) {
+                return null;
+            }
+
+            Entry entry = this.entries.get(lobby.getName());
+            if (entry == null || entry.load >= 1.0D) {
+                return null;
+            }
+            detach(entry);
+            entry.reserved++;
+            entry.reservedAt = System.nanoTime();
+            attach(entry);
+            return entry.lobby;
+        }
+    }
+
+    /**
+     * Reserves up to {@code count} slots on the given lobby, tracking it first if needed.
+     *
+     * @return the number of slots actually reserved
+     */
+    public int reserve(Lobby lobby, int count) {
+        synchronized (this.lock) {
+            Entry entry = this.entries.get(lobby.getName());
+            if (entry == null) {
+                update(lobby);
+                entry = this.entries.get(lobby.getName());
+                if (entry == null) {
+                    return 0;
+                }
+            }
+
+            int granted = Math.max(0, Math.min(count, entry.max - entry.online - entry.reserved));
+            if (granted > 0) {
+                detach(entry);
+                entry.reserved += granted;
+                entry.reservedAt = System.nanoTime();
+                attach(entry);
+            }
+            return granted;
+        }
+    }
+
+    /**
+     * Gives back a slot reserved by {@link #select()}, when the player did not go to the lobby.
+     */
+    public void release(Lobby lobby) {
+        release(lobby, 1);
+    }
+
+    public void release(Lobby lobby, int count) {
+        synchronized (this.lock) {
+            Entry entry = this.entries.get(lobby.getName());
+            if (entry != null && entry.reserved > 0) {
+                detach(entry);
+                entry.reserved = Math.max(0, entry.reserved - count);
+                attach(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the least loaded lobby that still has room, or null
+     */
+    public Lobby leastLoaded() {
+        synchronized (this.lock) {
+            Entry entry = this.byLoad.isEmpty() ? null : this.byLoad.first();
+            return entry != null && entry.load < 1.0D ? entry.lobby : null;
+        }
+    }
+
+    /**
+     * @return the most loaded lobby that still has room, or null
+     */
+    public Lobby fullestWithRoom() {
+        synchronized (this.lock) {
+            Entry entry = this.byLoad.lower(this.fullSentinel);
+            return entry != null ? entry.lobby : null;
+        }
+    }
+
+    /**
+     * @return a uniformly random online lobby, full or not, or null if there is none
+     */
+    public Lobby random() {
+        synchronized (this.lock) {
+            if (this.available.isEmpty()) {
+                return null;
+            }
+            return this.available.get(ThreadLocalRandom.current().nextInt(this.available.size())).lobby;
+        }
+    }
+
+    /**
+     * @return the fill ratio of the lobby, reservations included, or {@link Double#POSITIVE_INFINITY} if unknown
+     */
+    public double getLoad(Lobby lobby) {
+        synchronized (this.lock) {
+            Entry entry = lobby == null ? null : this.entries.get(lobby.getName());
+            return entry != null ? entry.load : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    public int getReserved(Lobby lobby) {
+        synchronized (this.lock) {
+            Entry entry = this.entries.get(lobby.getName());
+            return entry != null ? entry.reserved : 0;
+        }
+    }
+
+    public int size() {
+        synchronized (this.lock) {
+            return this.available.size();
+        }
+    }
+
+    private void attach(Entry entry) {
+        entry.load = entry.max > 0 ? (entry.online + entry.reserved) / (double) entry.max : Double.POSITIVE_INFINITY;
+        this.byLoad.add(entry);
+        entry.slot = this.available.size();
+        this.available.add(entry);
+    }
+
+    private void detach(Entry entry) {
+        if (entry.slot < 0) {
+            return;
+        }
+        this.byLoad.remove(entry);
+
+        // Swap with the last element so that removal stays O(1)
+        Entry last = this.available.remove(this.available.size() - 1);
+        if (last != entry) {
+            this.available.set(entry.slot, last);
+            last.slot = entry.slot;
+        }
+        entry.slot = -1;
+    }
+
+    private static final class Entry {
+        private final String name;
+        private Lobby lobby;
+        private int online;
+        private int max;
+        private int reserved;
+        private long reservedAt;
+        private double load;
+        private int slot = -1;
+
+        private Entry(Lobby lobby, String name) {
+            this.lobby = lobby;
+            this.name = name;
+        }
+    }
+}
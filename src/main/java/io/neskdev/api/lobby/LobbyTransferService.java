@@ -0,0 +1,145 @@
+package io.neskdev.api.lobby;
+
+import io.neskdev.api.utils.AsyncUtils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves many players at once without flooding the target lobbies.
+ * <p>
+ * Players are spread across lobbies through a {@link LobbySelector}, so that no lobby receives more than its
+ * free slots. They are then sent in batches of at most {@code batchSize} players through
+ * {@link LobbyManager#sendPlayersToLobby(Collection, Lobby)}. Each target admits at most
+ * {@code admissionsPerSecond} players per second, across every transfer of this service: batches bound for
+ * the same lobby are scheduled one interval apart, even when they come from concurrent calls. Sending
+ * {@code n} players to one lobby takes {@code ceil(n / batchSize)} requests.
+ */
+public class LobbyTransferService {
+
+    private final LobbyManager lobbyManager;
+    private final LobbySelector selector;
+    private final int batchSize;
+    private final long batchIntervalNanos;
+    // Earliest System.nanoTime() at which the next batch may be sent, by lobby name
+    private final Map<String, Long> nextSlots = new ConcurrentHashMap<>();
+
+    public LobbyTransferService(LobbyManager lobbyManager, LobbySelector selector) {
+        this(lobbyManager, selector, 50, 100);
+    }
+
+    public LobbyTransferService(LobbyManager lobbyManager, LobbySelector selector, int batchSize, int admissionsPerSecond) {
+        if (batchSize <= 0 || admissionsPerSecond <= 0) {
+            throw new IllegalArgumentException("batchSize and admissionsPerSecond must be positive");
+        }
+        this.lobbyManager = lobbyManager;
+        this.selector = selector;
+        this.batchSize = batchSize;
+        this.batchIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, batchSize * 1000L / admissionsPerSecond));
+    }
+
+    /**
+     * Sends every player to the given lobby, as far as its free slots allow.
+     */
+    public CompletableFuture<Map<UUID, TransferOutcome>> sendPlayersToLobby(Collection<UUID> players, Lobby lobby) {
+        Map<UUID, TransferOutcome> outcomes = new ConcurrentHashMap<>();
+        List<UUID> admitted = new ArrayList<>(players);
+
+        int granted = this.selector.reserve(lobby, admitted.size());
+        for (UUID player : admitted.subList(granted, admitted.size())) {
+            outcomes.put(player, TransferOutcome.NO_CAPACITY);
+        }
+        return dispatch(Map.of(lobby, admitted.subList(0, granted)), outcomes);
+    }
+
+    /**
+     * Spreads the players across every lobby known to the selector.
+     */
+    public CompletableFuture<Map<UUID, TransferOutcome>> sendPlayers(Collection<UUID> players) {
+        Map<UUID, TransferOutcome> outcomes = new ConcurrentHashMap<>();
+        Map<Lobby, List<UUID>> plan = new LinkedHashMap<>();
+
+        for (UUID player : players) {
+            Lobby lobby = this.selector.select();
+            if (lobby == null) {
+                outcomes.put(player, TransferOutcome.NO_CAPACITY);
+            } else {
+                plan.computeIfAbsent(lobby, key -> new ArrayList<>()).add(player);
+            }
+        }
+        return dispatch(plan, outcomes);
+    }
+
+    /**
+     * Moves the players of a lobby that is about to stop to the other lobbies. The source lobby is excluded
+     * from the selector until every player was sent; it comes back with its next update if it is still online.
+     *
+     * @param players the players currently on the source lobby
+     */
+    public CompletableFuture<Map<UUID, TransferOutcome>> evacuate(Lobby source, Collection<UUID> players) {
+        String name = source.getName();
+        this.selector.exclude(name);
+        CompletableFuture<Map<UUID, TransferOutcome>> transfer;
+        try {
+            transfer = sendPlayers(players);
+        } catch (RuntimeException e) {
+            this.selector.include(name);
+            throw e;
+        }
+        return transfer.whenComplete((outcomes, error) -> this.selector.include(name));
+    }
+
+    private CompletableFuture<Map<UUID, TransferOutcome>> dispatch(Map<Lobby, List<UUID>> plan, Map<UUID, TransferOutcome> outcomes) {
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+
+        for (Map.Entry<Lobby, List<UUID>> entry : plan.entrySet()) {
+            Lobby lobby = entry.getKey();
+            List<UUID> players = entry.getValue();
+
+            for (int from = 0; from < players.size(); from += this.batchSize) {
+                List<UUID> batch = List.copyOf(players.subList(from, Math.min(players.size(), from + this.batchSize)));
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                batches.add(future);
+
+                Runnable send = () -> {
+                    try {
+                        this.lobbyManager.sendPlayersToLobby(batch, lobby);
+                        batch.forEach(player -> outcomes.put(player, TransferOutcome.SENT));
+                    } catch (Exception e) {
+                        this.selector.release(lobby, batch.size());
+                        batch.forEach(player -> outcomes.put(player, TransferOutcome.FAILED));
+                    } finally {
+                        future.complete(null);
+                    }
+                };
+
+                long delay = reserveSlot(lobby.getName()) - System.nanoTime();
+                if (delay <= 0) {
+                    AsyncUtils.runIo(send);
+                } else {
+                    AsyncUtils.runLater(send, delay, TimeUnit.NANOSECONDS, AsyncUtils.Mode.IO);
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(ignored -> outcomes);
+    }
+
+    /**
+     * @return the System.nanoTime() at which a batch may be sent to the lobby, pushing the next one an interval later
+     */
+    private long reserveSlot(String name) {
+        long now = System.nanoTime();
+        long next = this.nextSlots.merge(name, now + this.batchIntervalNanos,
+                (previous, ignored) -> Math.max(previous, now) + this.batchIntervalNanos);
+        return next - this.batchIntervalNanos;
+    }
+
+    public enum TransferOutcome {
+        SENT,
+        NO_CAPACITY,
+        FAILED
+    }
+}
@@ -0,0 +1,424 @@
+package io.neskdev.api.messaging;
+
+import io.neskdev.api.database.DatabaseManager;
+import io.neskdev.api.database.RedisSubscription;
+import io.neskdev.api.utils.AsyncUtils;
+import io.neskdev.api.utils.Scheduler;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Typed messages between the nodes of the network, over a single Redis pub/sub channel.
+ * <p>
+ * Messages are encoded by the {@link MessageCodec} of their {@link MessageType} and appended to a frame, which
+ * is published once per {@code batchDelay} as a single binary message: a format version, the id of the sending
+ * node, then the type id, length and payload of each message. A frame never exceeds {@code maxBatchBytes} unless
+ * it holds a single larger message: it is closed and sent as soon as the next message would not fit, or along
+ * with a message whose type is not batched. Messages of a node are received in
+ * the order it published them.
+ * <p>
+ * Each node holds a single subscribed connection for every type. Received messages are decoded on its thread
+ * and handed to the handlers according to the {@link MessageType.Dispatch} of their type. The messages of an
+ * {@link MessageType.Dispatch#ASYNC} type are handled one at a time and in the order received, so that the order
+ * of a node is kept; {@link MessageType.Dispatch#SYNC} types keep it as long as the {@link Scheduler} runs its
+ * tasks in order. A node does not receive its own messages, and skips those of types it did not register.
+ */
+public class MessageBus implements AutoCloseable {
+
+    public static final String DEFAULT_CHANNEL = "neskapi:bus";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final long DEFAULT_BATCH_DELAY_MILLIS = 5;
+    private static final int DEFAULT_MAX_BATCH_BYTES = 32 * 1024;
+    private static final String FLUSH_TASK = "message-bus-flush";
+    // Type id and payload length, two var ints
+    private static final int MAX_ENTRY_HEADER_BYTES = 10;
+
+    private final DatabaseManager databaseManager;
+    private final byte[] channel;
+    private final long batchDelayNanos;
+    private final int maxBatchBytes;
+    /**
+     * Random id of this node, to recognize its own frames
+     */
+    @Getter
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+
+    // Indexed by type id, replaced as a whole on registration
+    private volatile Registration<?>[] registrations = new Registration<?>[0];
+    private final Object registrationLock = new Object();
+
+    private final ThreadLocal<MessageWriter> payloads = ThreadLocal.withInitial(MessageWriter::new);
+    private final Object batchLock = new Object();
+    private final MessageWriter batch = new MessageWriter(1024);
+    private int batchCount;
+    private boolean flushScheduled;
+    // Closed frames waiting to be published, oldest first
+    private final Queue<Frame> fullFrames = new ArrayDeque<>();
+    // Held while publishing, so that frames leave in the order they were filled
+    private final Object publishLock = new Object();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final RedisSubscription subscription;
+    private volatile boolean closed;
+
+    public MessageBus(DatabaseManager databaseManager) {
+        this(databaseManager, DEFAULT_CHANNEL, DEFAULT_BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_MAX_BATCH_BYTES);
+    }
+
+    /**
+     * @param batchDelay    how long a message may wait for others before its frame is published
+     * @param maxBatchBytes the size a frame does not exceed, unless it holds a single larger message
+     */
+    public MessageBus(DatabaseManager databaseManager, String channel, long batchDelay, TimeUnit unit, int maxBatchBytes) {
+        if (maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("maxBatchBytes must be positive");
+        }
+        this.databaseManager = databaseManager;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        this.batchDelayNanos = unit.toNanos(batchDelay);
+        this.maxBatchBytes = maxBatchBytes;
+        this.subscription = RedisSubscription.binary(databaseManager, this::onFrame, this.channel);
+    }
+
+    /**
+     * Subscribes to the channel. Types should be registered before, so that no message is skipped.
+     */
+    public MessageBus start() {
+        this.subscription.start();
+        return this;
+    }
+
+    /**
+     * Registers a type, which is required to publish or handle its messages.
+     *
+     * @throws IllegalStateException if another type was registered with the same id
+     */
+    public <T> MessageBus register(MessageType<T> type) {
+        registration(type, true);
+        return this;
+    }
+
+    /**
+     * Registers the type if needed, and calls the handler with every message of this type received from the
+     * other nodes.
+     *
+     * @throws IllegalStateException if the type is dispatched {@link MessageType.Dispatch#SYNC} but no
+     *                               {@link Scheduler} implementation is set, since its messages would be lost
+     */
+    public <T> MessageBus subscribe(MessageType<T> type, Consumer<? super T> handler) {
+        if (type.getDispatch() == MessageType.Dispatch.SYNC && !Scheduler.hasImplementation()) {
+            throw new IllegalStateException(type + " is dispatched on the server thread, but no Scheduler implementation is set");
+        }
+        registration(type, true).handlers.add(handler);
+        return this;
+    }
+
+    public <T> boolean unsubscribe(MessageType<T> type, Consumer<? super T> handler) {
+        Registration<T> registration = registration(type, false);
+        return registration != null && registration.handlers.remove(handler);
+    }
+
+    /**
+     * Queues the message for the next frame. Encoding happens on the calling thread; publishing never does.
+     *
+     * @throws IllegalArgumentException if the type is not registered
+     */
+    public <T> void publish(MessageType<T> type, T message) {
+        if (this.closed) {
+            throw new IllegalStateException("Message bus closed");
+        }
+        if (registration(type, false) == null) {
+            throw new IllegalArgumentException(type + " is not registered");
+        }
+
+        MessageWriter payload = this.payloads.get();
+        payload.reset();
+        type.getCodec().encode(message, payload);
+
+        boolean flushNow;
+        boolean scheduleFlush = false;
+        synchronized (this.batchLock) {
+            boolean full = this.batchCount > 0 && this.batch.size() + MAX_ENTRY_HEADER_BYTES + payload.size() > this.maxBatchBytes;
+            if (full) {
+                closeBatch();
+            }
+            if (this.batchCount == 0) {
+                this.batch.reset();
+                this.batch.writeByte(FORMAT_VERSION).writeLong(this.nodeId);
+            }
+            this.batch.writeVarInt(type.getId()).writeVarInt(payload.size());
+            payload.writeTo(this.batch);
+            this.batchCount++;
+            if (this.batch.size() >= this.maxBatchBytes) {
+                closeBatch();
+                full = true;
+            }
+
+            // The flush started by the message that closed a frame publishes it, along with the ones before
+            flushNow = full || !type.isBatched();
+            if (!flushNow && !this.flushScheduled) {
+                this.flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        this.published.increment();
+        if (payload.size() > this.maxBatchBytes) {
+            // Does not keep a buffer that large around for every thread
+            this.payloads.remove();
+        }
+
+        if (flushNow) {
+            flush();
+        } else if (scheduleFlush) {
+            AsyncUtils.runLater(FLUSH_TASK, this::publishBatch, this.batchDelayNanos, TimeUnit.NANOSECONDS, AsyncUtils.Mode.IO);
+        }
+    }
+
+    /**
+     * Publishes the messages queued so far without waiting for the batch delay.
+     */
+    public CompletableFuture<Void> flush() {
+        return AsyncUtils.run(FLUSH_TASK, AsyncUtils.Mode.IO, this::publishBatch);
+    }
+
+    public boolean isSubscribed() {
+        return this.subscription.isSubscribed();
+    }
+
+    public long getPublishedCount() {
+        return this.published.sum();
+    }
+
+    /**
+     * @return the number of frames published, each holding one or more messages
+     */
+    public long getFrameCount() {
+        return this.frames.sum();
+    }
+
+    public long getBytesSent() {
+        return this.bytesSent.sum();
+    }
+
+    /**
+     * @return the number of messages lost because their frame could not be published
+     */
+    public long getFailedCount() {
+        return this.failed.sum();
+    }
+
+    public long getReceivedCount() {
+        return this.received.sum();
+    }
+
+    /**
+     * @return the number of received messages skipped, of an unknown type, malformed, from an incompatible
+     * version or that could not be handed to the server thread
+     */
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Publishes the queued messages, then unsubscribes.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        publishBatch();
+        this.subscription.close();
+    }
+
+    private void publishBatch() {
+        synchronized (this.publishLock) {
+            Frame[] pending;
+            synchronized (this.batchLock) {
+                this.flushScheduled = false;
+                if (this.batchCount > 0) {
+                    closeBatch();
+                }
+                if (this.fullFrames.isEmpty()) {
+                    return;
+                }
+                pending = this.fullFrames.toArray(new Frame[0]);
+                this.fullFrames.clear();
+            }
+
+            for (Frame frame : pending) {
+                try {
+                    this.databaseManager.useRedis(jedis -> jedis.publish(this.channel, frame.bytes));
+                    this.frames.increment();
+                    this.bytesSent.add(frame.bytes.length);
+                } catch (Exception e) {
+                    this.failed.add(frame.count);
+                    System.out.println("[NeskAPI] Unable to publish " + frame.count + " message(s) on the message bus: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the current frame to the ones waiting to be published. Called under the batch lock.
+     */
+    private void closeBatch() {
+        this.fullFrames.add(new Frame(this.batch.toByteArray(), this.batchCount));
+        this.batchCount = 0;
+    }
+
+    private void onFrame(byte[] channel, byte[] frame) {
+        MessageReader reader = new MessageReader(frame);
+        try {
+            int version = reader.readByte();
+            if (version != FORMAT_VERSION) {
+                this.dropped.increment();
+                return;
+            }
+            if (reader.readLong() == this.nodeId) {
+                return;
+            }
+
+            Registration<?>[] registrations = this.registrations;
+            while (reader.hasRemaining()) {
+                int id = reader.readVarInt();
+                MessageReader payload = reader.slice(reader.readVarInt());
+                Registration<?> registration = id >= 0 && id < registrations.length ? registrations[id] : null;
+                if (registration != null && registration.dispatch(payload)) {
+                    this.received.increment();
+                } else {
+                    this.dropped.increment();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // The rest of the frame cannot be delimited
+            this.dropped.increment();
+            System.out.println("[NeskAPI] Malformed frame on the message bus: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Registration<T> registration(MessageType<T> type, boolean create) {
+        Registration<?>[] current = this.registrations;
+        Registration<?> registration = type.getId() < current.length ? current[type.getId()] : null;
+        if (registration == null && create) {
+            synchronized (this.registrationLock) {
+                current = this.registrations;
+                registration = type.getId() < current.length ? current[type.getId()] : null;
+                if (registration == null) {
+                    Registration<?>[] copy = new Registration<?>[Math.max(current.length, type.getId() + 1)];
+                    System.arraycopy(current, 0, copy, 0, current.length);
+                    registration = copy[type.getId()] = new Registration<>(type);
+                    this.registrations = copy;
+                }
+            }
+        }
+        if (registration != null && registration.type != type) {
+            throw new IllegalStateException("Message type id " + type.getId() + " is already registered by " + registration.type);
+        }
+        return (Registration<T>) registration;
+    }
+
+    private static final class Frame {
+
+        private final byte[] bytes;
+        private final int count;
+
+        private Frame(byte[] bytes, int count) {
+            this.bytes = bytes;
+            this.count = count;
+        }
+    }
+
+    private static final class Registration<T> {
+        private final MessageType<T> type;
+        private final String taskName;
+        private final List<Consumer<? super T>> handlers = new CopyOnWriteArrayList<>();
+        // ASYNC messages waiting for the task draining them, a single one at a time
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Registration(MessageType<T> type) {
+            this.type = type;
+            this.taskName = "message:" + type.getName();
+        }
+
+        /**
+         * @return false if the message could not be decoded, or handed to the server thread
+         */
+        private boolean dispatch(MessageReader payload) {
+            T message;
+            try {
+                message = this.type.getCodec().decode(payload);
+            } catch (RuntimeException e) {
+                System.out.println("[NeskAPI] Unable to decode a message of " + this.type + ": " + e);
+                return false;
+            }
+            if (this.handlers.isEmpty()) {
+                return true;
+            }
+
+            switch (this.type.getDispatch()) {
+                case INLINE:
+                    deliver(message);
+                    break;
+                case SYNC:
+                    if (!Scheduler.hasImplementation()) {
+                        return false;
+                    }
+                    Scheduler.runNow(this.taskName, () -> deliver(message));
+                    break;
+                default:
+                    this.queue.add(message);
+                    if (this.draining.compareAndSet(false, true)) {
+                        try {
+                            AsyncUtils.run(this.taskName, this::drain);
+                        } catch (RejectedExecutionException e) {
+                            // Left queued for the next message
+                            this.draining.set(false);
+                            System.out.println("[NeskAPI] Unable to handle the messages of " + this.type + ": " + e);
+                        }
+                    }
+                    break;
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                T message;
+                while ((message = this.queue.poll()) != null) {
+                    deliver(message);
+                }
+                this.draining.set(false);
+                // A message queued after the last poll saw the flag still set, and relies on this task
+            } while (!this.queue.isEmpty() && this.draining.compareAndSet(false, true));
+        }
+
+        private void deliver(T message) {
+            for (Consumer<? super T> handler : this.handlers) {
+                try {
+                    handler.accept(message);
+                } catch (Exception e) {
+                    System.out.println("[NeskAPI] Error while handling a message of " + this.type + ": " + e);
+                }
+            }
+        }
+    }
+}
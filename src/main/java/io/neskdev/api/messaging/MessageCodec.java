@@ -0,0 +1,15 @@
+package io.neskdev.api.messaging;
+
+/**
+ * Binary form of the messages of a {@link MessageType}.
+ * <p>
+ * {@link #decode(MessageReader)} must read fields back in the order {@link #encode(Object, MessageWriter)}
+ * wrote them. To stay compatible with nodes running an older version, only append fields at the end, and
+ * check {@link MessageReader#hasRemaining()} before reading them.
+ */
+public interface MessageCodec<T> {
+
+    void encode(T message, MessageWriter writer);
+
+    T decode(MessageReader reader);
+}
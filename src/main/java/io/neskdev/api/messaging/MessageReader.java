@@ -0,0 +1,173 @@
+package io.neskdev.api.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Reads back what a {@link MessageWriter} wrote, from a slice of a byte array.
+ * <p>
+ * Reading past the end of the slice, or a malformed varint, throws {@link IllegalArgumentException}. A reader
+ * given to {@link MessageCodec#decode(MessageReader)} is bounded to the payload of a single message. Not
+ * thread-safe.
+ */
+public final class MessageReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public MessageReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public MessageReader(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", size " + buffer.length);
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        require(1);
+        return this.buffer[this.position++];
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at " + this.position);
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varlong at " + this.position);
+    }
+
+    public int readSignedVarInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (this.buffer[this.position++] & 0xFF);
+        }
+        return value;
+    }
+
+    public float readFloat() {
+        require(4);
+        int bits = 0;
+        for (int i = 0; i < 4; i++) {
+            bits = (bits << 8) | (this.buffer[this.position++] & 0xFF);
+        }
+        return Float.intBitsToFloat(bits);
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public UUID readUUID() {
+        return new UUID(readLong(), readLong());
+    }
+
+    /**
+     * @return the string, or null if null was written
+     */
+    public String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+        this.position += length;
+        return value;
+    }
+
+    public byte[] readBytes() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = Arrays.copyOfRange(this.buffer, this.position, this.position + length);
+        this.position += length;
+        return value;
+    }
+
+    /**
+     * @param values the constants of the enum, from {@code values()}
+     */
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = readVarInt();
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    public int remaining() {
+        return this.limit - this.position;
+    }
+
+    public boolean hasRemaining() {
+        return this.position < this.limit;
+    }
+
+    /**
+     * @return a reader over the next bytes, which this reader then skips
+     */
+    MessageReader slice(int length) {
+        require(length);
+        MessageReader slice = new MessageReader(this.buffer, this.position, length);
+        this.position += length;
+        return slice;
+    }
+
+    void skip(int length) {
+        require(length);
+        this.position += length;
+    }
+
+    private int readLength() {
+        int length = readVarInt() - 1;
+        if (length < -1 || length > remaining()) {
+            throw new IllegalArgumentException("Length " + length + " exceeds the " + remaining() + " remaining byte(s)");
+        }
+        return length;
+    }
+
+    private void require(int length) {
+        if (length < 0 || length > this.limit - this.position) {
+            throw new IllegalArgumentException("Unexpected end of message: " + length + " byte(s) needed, "
+                    + (this.limit - this.position) + " remaining");
+        }
+    }
+}
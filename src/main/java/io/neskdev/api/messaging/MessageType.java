@@ -0,0 +1,77 @@
+package io.neskdev.api.messaging;
+
+import lombok.Getter;
+
+/**
+ * Kind of message sent over a {@link MessageBus}, identified on the wire by a small number.
+ * <p>
+ * Every node must register the same types under the same ids: a node receiving an id it does not know skips
+ * the message. Types are declared once, as constants, and configured with the fluent setters before being
+ * registered.
+ */
+@Getter
+public final class MessageType<T> {
+
+    /**
+     * Ids go from 0 to this value, so that they take at most 2 bytes on the wire.
+     */
+    public static final int MAX_ID = 1023;
+
+    private final int id;
+    private final String name;
+    private final MessageCodec<T> codec;
+    private Dispatch dispatch = Dispatch.ASYNC;
+    private boolean batched = true;
+
+    private MessageType(int id, String name, MessageCodec<T> codec) {
+        this.id = id;
+        this.name = name;
+        this.codec = codec;
+    }
+
+    public static <T> MessageType<T> of(int id, String name, MessageCodec<T> codec) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Message type id must be between 0 and " + MAX_ID + ": " + id);
+        }
+        return new MessageType<>(id, name, codec);
+    }
+
+    /**
+     * Sets where the handlers of this type run, {@link Dispatch#ASYNC} by default.
+     */
+    public MessageType<T> setDispatch(Dispatch dispatch) {
+        this.dispatch = dispatch;
+        return this;
+    }
+
+    /**
+     * Sets whether messages of this type wait for the next batch, true by default. An unbatched message is sent
+     * right away, along with the messages batched before it, e.g. for latency-sensitive messages such as
+     * player transfers.
+     */
+    public MessageType<T> setBatched(boolean batched) {
+        this.batched = batched;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageType{" + this.id + ", " + this.name + "}";
+    }
+
+    public enum Dispatch {
+        /**
+         * On {@link io.neskdev.api.utils.AsyncUtils}, with its default mode, one message at a time and in order
+         */
+        ASYNC,
+        /**
+         * On the server thread, through {@link io.neskdev.api.utils.Scheduler#runNow(String, Runnable)}
+         */
+        SYNC,
+        /**
+         * On the subscriber thread, for handlers which only update in-memory state; a slow handler delays every
+         * message behind it
+         */
+        INLINE
+    }
+}
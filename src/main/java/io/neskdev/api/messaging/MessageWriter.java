@@ -0,0 +1,161 @@
+package io.neskdev.api.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Growable buffer a {@link MessageCodec} encodes a message into.
+ * <p>
+ * Integers are written as varints, so that small values take a single byte; the signed variants zigzag-encode
+ * them first so that small negative values stay short too. Strings are written as their UTF-8 length followed
+ * by their bytes. Not thread-safe.
+ */
+public final class MessageWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public MessageWriter() {
+        this(64);
+    }
+
+    public MessageWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public MessageWriter writeByte(int value) {
+        ensureCapacity(1);
+        this.buffer[this.size++] = (byte) value;
+        return this;
+    }
+
+    public MessageWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes a non-negative int in 1 to 5 bytes; negative values take 5 bytes, prefer {@link #writeSignedVarInt(int)}.
+     */
+    public MessageWriter writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            this.buffer[this.size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+        return this;
+    }
+
+    public MessageWriter writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+        return this;
+    }
+
+    public MessageWriter writeSignedVarInt(int value) {
+        return writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public MessageWriter writeSignedVarLong(long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes the 8 bytes of the value, for values spread over the whole range such as hashes or identifiers.
+     */
+    public MessageWriter writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            this.buffer[this.size++] = (byte) (value >>> shift);
+        }
+        return this;
+    }
+
+    public MessageWriter writeFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        ensureCapacity(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            this.buffer[this.size++] = (byte) (bits >>> shift);
+        }
+        return this;
+    }
+
+    public MessageWriter writeDouble(double value) {
+        return writeLong(Double.doubleToLongBits(value));
+    }
+
+    public MessageWriter writeUUID(UUID uuid) {
+        return writeLong(uuid.getMostSignificantBits()).writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Writes a string, which may be null.
+     */
+    public MessageWriter writeString(String value) {
+        if (value == null) {
+            return writeVarInt(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Lengths are shifted by one, 0 standing for null
+        writeVarInt(bytes.length + 1);
+        return writeRaw(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes a byte array, which may be null, preceded by its length.
+     */
+    public MessageWriter writeBytes(byte[] value) {
+        if (value == null) {
+            return writeVarInt(0);
+        }
+        writeVarInt(value.length + 1);
+        return writeRaw(value, 0, value.length);
+    }
+
+    public <E extends Enum<E>> MessageWriter writeEnum(E value) {
+        return writeVarInt(value.ordinal());
+    }
+
+    /**
+     * Writes the bytes as they are, without their length.
+     */
+    public MessageWriter writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, this.buffer, this.size, length);
+        this.size += length;
+        return this;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Empties the writer, keeping its buffer.
+     */
+    public void reset() {
+        this.size = 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    /**
+     * Appends the content of another writer.
+     */
+    void writeTo(MessageWriter target) {
+        target.writeRaw(this.buffer, 0, this.size);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (this.size + needed > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + needed));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package io.neskdev.api.rank;
+
+import io.neskdev.api.database.DatabaseManager;
+import io.neskdev.api.database.RedisSubscription;
+import io.neskdev.api.utils.AsyncUtils;
+import io.neskdev.api.utils.math.RandomStringUtils;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RankRepository} decorator keeping every rank in memory.
+ * <p>
+ * Reads never reach the delegate once the cache is loaded: every change publishes a new {@link RankSnapshot}.
+ * The whole cache is refreshed asynchronously at a fixed interval, and every {@link #addRank(Rank)} /
+ * {@link #deleteRank(Rank)} is broadcast on {@link #INVALIDATION_CHANNEL} so that the other nodes reload the
+ * affected rank.
+ */
+public class CachedRankRepository implements RankRepository, AutoCloseable {
+
+    public static final String INVALIDATION_CHANNEL = "neskapi:ranks:invalidate";
+    private static final String ALL_RANKS = "*";
+
+    private final RankRepository delegate;
+    private final DatabaseManager databaseManager;
+    private final String nodeId = RandomStringUtils.generate(12);
+    private final Object writeLock = new Object();
+
+    // Null until the first refresh
+    private volatile RankSnapshot snapshot;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private final RedisSubscription subscription;
+    private final long refreshTaskId;
+
+    public CachedRankRepository(RankRepository delegate, DatabaseManager databaseManager, long refreshInterval, TimeUnit unit) {
+        this.delegate = delegate;
+        this.databaseManager = databaseManager;
+        this.subscription = new RedisSubscription(databaseManager, (channel, message) -> onInvalidation(message), INVALIDATION_CHANNEL)
+                .onSubscribe(this::refreshAsync)
+                .start();
+        this.refreshTaskId = AsyncUtils.runRepeating(this::refresh, refreshInterval, refreshInterval, unit, AsyncUtils.Mode.IO);
+    }
+
+    @Override
+    public Rank getRank(String name) {
+        RankSnapshot current = this.snapshot;
+        if (current != null) {
+            // The snapshot holds every rank, and invalidations add the new ones: a missing name does not exist
+            this.hits.increment();
+            return current.getRank(name);
+        }
+
+        this.misses.increment();
+        try {
+            refresh();
+        } catch (RuntimeException exception) {
+            System.out.println("[NeskAPI] Unable to load the ranks, reading " + name + " from the delegate: " + exception);
+        }
+        current = this.snapshot;
+        // Still not loaded if another refresh is in progress, or if the delegate failed
+        return current != null ? current.getRank(name) : this.delegate.getRank(name);
+    }
+
+    @Override
+    public List<Rank> getRanks() {
+        return getSnapshot().getRanks();
+    }
+
+    /**
+     * @return the ranks as of the last change, loading them first if they never were
+     */
+    @Override
+    public RankSnapshot getSnapshot() {
+        RankSnapshot current = this.snapshot;
+        if (current != null) {
+            this.hits.increment();
+            return current;
+        }
+
+        this.misses.increment();
+        refresh();
+        current = this.snapshot;
+        return current != null ? current : RankSnapshot.EMPTY;
+    }
+
+    @Override
+    public void addRank(Rank rank) {
+        this.delegate.addRank(rank);
+        put(rank);
+        publishInvalidation(rank.getName());
+    }
+
+    @Override
+    public void deleteRank(Rank rank) {
+        this.delegate.deleteRank(rank);
+        remove(rank.getName());
+        publishInvalidation(rank.getName());
+    }
+
+    /**
+     * Updates the snapshot with a mutation written by another path, and broadcasts the invalidation.
+     */
+    @Override
+    public void applyWrite(String name, Rank rank) {
+        if (rank != null) {
+            put(rank);
+        } else {
+            remove(name);
+        }
+        publishInvalidation(name);
+    }
+
+    /**
+     * Reloads every rank from the delegate. Concurrent calls are collapsed into one.
+     */
+    public void refresh() {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long expectedVersion = this.version.get();
+            List<Rank> loaded = this.delegate.getRanks();
+
+            synchronized (this.writeLock) {
+                // A local mutation happened while loading: keep it, the next refresh will catch up
+                if (this.version.get() != expectedVersion && this.snapshot != null) {
+                    return;
+                }
+                this.snapshot = RankSnapshot.of(loaded);
+            }
+            this.refreshes.increment();
+        } finally {
+            this.refreshing.set(false);
+        }
+    }
+
+    public void refreshAsync() {
+        AsyncUtils.runIo(this::refresh);
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public long getRefreshCount() {
+        return this.refreshes.sum();
+    }
+
+    public long getInvalidationCount() {
+        return this.invalidations.sum();
+    }
+
+    @Override
+    public void close() {
+        AsyncUtils.stopTask(this.refreshTaskId);
+        this.subscription.close();
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(this.nodeId)) {
+            return;
+        }
+
+        this.invalidations.increment();
+        String name = message.substring(separator + 1);
+        if (name.equals(ALL_RANKS)) {
+            refreshAsync();
+            return;
+        }
+
+        AsyncUtils.runIo(() -> {
+            Rank rank = this.delegate.getRank(name);
+            if (rank != null) {
+                put(rank);
+            } else {
+                remove(name);
+            }
+        });
+    }
+
+    private void publishInvalidation(String name) {
+        String message = this.nodeId + ":" + name;
+        AsyncUtils.runIo(() -> this.databaseManager.useRedis(jedis -> jedis.publish(INVALIDATION_CHANNEL, message))).exceptionally(throwable -> {
+            System.out.println("[NeskAPI] Unable to broadcast the invalidation of rank " + name + ": " + throwable);
+            return null;
+        });
+    }
+
+    private void put(Rank rank) {
+        synchronized (this.writeLock) {
+            // Until the first refresh completes, a partial map would pass for the full rank list
+            if (this.snapshot == null) {
+                return;
+            }
+            this.snapshot = this.snapshot.with(rank);
+            this.version.incrementAndGet();
+        }
+    }
+
+    private void remove(String name) {
+        synchronized (this.writeLock) {
+            if (this.snapshot == null || !this.snapshot.contains(name)) {
+                return;
+            }
+            this.snapshot = this.snapshot.without(name);
+            this.version.incrementAndGet();
+        }
+    }
+}
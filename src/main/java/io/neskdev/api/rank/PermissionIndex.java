@@ -0,0 +1,262 @@
+package io.neskdev.api.rank;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, pre-compiled view of a rank's permissions.
+ * <p>
+ * Nodes are stored in a trie split on {@code '.'}; {@code lobby.*} grants every node below {@code lobby},
+ * {@code *} grants everything and a leading {@code -} or {@code !} negates a node. The most specific
+ * entry wins, and negations win over grants declared by the same rank. Lookups are case-insensitive
+ * and do not allocate.
+ */
+public final class PermissionIndex implements Predicate<String> {
+
+    private static final byte UNSET = 0;
+    private static final byte GRANT = 1;
+    private static final byte DENY = 2;
+
+    public static final PermissionIndex EMPTY = new PermissionIndex(new Node(UNSET, UNSET, null, null));
+
+    private final Node root;
+
+    private PermissionIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles a single set of permissions, without inheritance.
+     */
+    public static PermissionIndex compile(Collection<String> permissions) {
+        Map<String, Byte> entries = new HashMap<>();
+        apply(entries, permissions);
+        return build(entries);
+    }
+
+    /**
+     * Compiles the permissions of a rank, inheriting every rank with a lower power.
+     */
+    public static PermissionIndex compile(Rank rank, Collection<? extends Rank> ranks) {
+        Map<String, Byte> entries = new HashMap<>();
+        for (Rank parent : sortByPower(ranks)) {
+            if (parent.getPower() < rank.getPower()) {
+                apply(entries, parent.getPermissions());
+            }
+        }
+        apply(entries, rank.getPermissions());
+        return build(entries);
+    }
+
+    /**
+     * Compiles every rank at once, each one inheriting the ranks with a lower power.
+     *
+     * @return the compiled indexes keyed by rank name
+     */
+    public static Map<String, PermissionIndex> compileAll(Collection<? extends Rank> ranks) {
+        List<Rank> sorted = sortByPower(ranks);
+        Map<String, PermissionIndex> indexes = new HashMap<>(sorted.size() * 2);
+        Map<String, Byte> inherited = new HashMap<>();
+
+        int i = 0;
+        while (i < sorted.size()) {
+            int power = sorted.get(i).getPower();
+            int end = i;
+            while (end < sorted.size() && sorted.get(end).getPower() == power) {
+                end++;
+            }
+
+            // Ranks sharing the same power do not inherit from each other
+            for (int j = i; j < end; j++) {
+                Rank rank = sorted.get(j);
+                Map<String, Byte> entries = new HashMap<>(inherited);
+                apply(entries, rank.getPermissions());
+                indexes.put(rank.getName(), build(entries));
+            }
+            for (int j = i; j < end; j++) {
+                apply(inherited, sorted.get(j).getPermissions());
+            }
+            i = end;
+        }
+        return indexes;
+    }
+
+    public boolean hasPermission(String permission) {
+        if (permission == null || permission.isEmpty()) {
+            return false;
+        }
+
+        Node node = root;
+        byte result = node.wildcard;
+        int length = permission.length();
+        int start = 0;
+
+        while (true) {
+            int end = permission.indexOf('.', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            node = node.child(permission, start, end);
+            if (node == null) {
+                return result == GRANT;
+            }
+            if (end == length) {
+                return node.exact != UNSET ? node.exact == GRANT : result == GRANT;
+            }
+            if (node.wildcard != UNSET) {
+                result = node.wildcard;
+            }
+            start = end + 1;
+        }
+    }
+
+    @Override
+    public boolean test(String permission) {
+        return hasPermission(permission);
+    }
+
+    private static List<Rank> sortByPower(Collection<? extends Rank> ranks) {
+        List<Rank> sorted = new ArrayList<>(ranks);
+        sorted.sort(Comparator.comparingInt(Rank::getPower));
+        return sorted;
+    }
+
+    private static void apply(Map<String, Byte> entries, Collection<String> permissions) {
+        if (permissions == null || permissions.isEmpty()) {
+            return;
+        }
+
+        // Entries of the same rank are merged first so that a negation always beats a grant
+        Map<String, Byte> own = new HashMap<>(permissions.size() * 2);
+        for (String permission : permissions) {
+            if (permission == null) {
+                continue;
+            }
+            String node = permission.trim();
+            byte state = GRANT;
+            if (node.startsWith("-") || node.startsWith("!")) {
+                node = node.substring(1);
+                state = DENY;
+            }
+            if (node.isEmpty()) {
+                continue;
+            }
+            own.merge(lowerCase(node), state, (a, b) -> a == DENY || b == DENY ? DENY : GRANT);
+        }
+        entries.putAll(own);
+    }
+
+    private static PermissionIndex build(Map<String, Byte> entries) {
+        if (entries.isEmpty()) {
+            return EMPTY;
+        }
+
+        Builder root = new Builder();
+        for (Map.Entry<String, Byte> entry : entries.entrySet()) {
+            String node = entry.getKey();
+            boolean wildcard = node.equals("*") || node.endsWith(".*");
+            String path = wildcard ? node.substring(0, Math.max(0, node.length() - 2)) : node;
+
+            Builder builder = root;
+            if (!wildcard || !path.isEmpty()) {
+                int start = 0;
+                while (true) {
+                    int end = path.indexOf('.', start);
+                    if (end < 0) {
+                        end = path.length();
+                    }
+                    builder = builder.children.computeIfAbsent(path.substring(start, end), k -> new Builder());
+                    if (end == path.length()) {
+                        break;
+                    }
+                    start = end + 1;
+                }
+            }
+
+            if (wildcard) {
+                builder.wildcard = entry.getValue();
+            } else {
+                builder.exact = entry.getValue();
+            }
+        }
+        return new PermissionIndex(root.freeze());
+    }
+
+    private static String lowerCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Builder {
+        private final Map<String, Builder> children = new HashMap<>();
+        private byte exact = UNSET;
+        private byte wildcard = UNSET;
+
+        private Node freeze() {
+            if (children.isEmpty()) {
+                return new Node(exact, wildcard, null, null);
+            }
+
+            int capacity = Integer.highestOneBit(children.size() * 2 - 1) << 1;
+            String[] keys = new String[capacity];
+            Node[] nodes = new Node[capacity];
+            int mask = capacity - 1;
+
+            for (Map.Entry<String, Builder> entry : children.entrySet()) {
+                int slot = spread(entry.getKey().hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                nodes[slot] = entry.getValue().freeze();
+            }
+            return new Node(exact, wildcard, keys, nodes);
+        }
+    }
+
+    private static final class Node {
+        private final byte exact;
+        private final byte wildcard;
+        private final String[] keys;
+        private final Node[] children;
+
+        private Node(byte exact, byte wildcard, String[] keys, Node[] children) {
+            this.exact = exact;
+            this.wildcard = wildcard;
+            this.keys = keys;
+            this.children = children;
+        }
+
+        private Node child(String permission, int from, int to) {
+            if (keys == null) {
+                return null;
+            }
+
+            // Same hash as String#hashCode on the lower-cased segment, without creating it
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + Character.toLowerCase(permission.charAt(i));
+            }
+
+            int length = to - from;
+            int mask = keys.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                String key = keys[slot];
+                if (key == null) {
+                    return null;
+                }
+                if (key.length() == length && key.hashCode() == hash && key.regionMatches(true, 0, permission, from, length)) {
+                    return children[slot];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package io.neskdev.api.rank;
+
+import io.neskdev.api.utils.AsyncUtils;
+import io.neskdev.api.utils.FrequencySketch;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded cache of the rank of each player, loaded asynchronously, typically on login.
+ * <p>
+ * Only the rank name is cached: reads resolve it through the {@link RankRepository#getSnapshot()} published
+ * by the repository, so they always return its current instance, and the default rank if the player has none
+ * or their rank was deleted. The repository should be a caching one, such as {@link CachedRankRepository},
+ * whose snapshot is a single field read.
+ * <p>
+ * Eviction follows W-TinyLFU. New players enter a small LRU window (1% of the cache); players leaving it
+ * only enter the main cache if a {@link FrequencySketch} saw them more often than the player they would
+ * evict, so a burst of one-time visitors cannot flush the regulars. The main cache is a segmented LRU, in
+ * which players read twice are protected from eviction. UUIDs are stored as pairs of longs in flat arrays.
+ * Reads are lock-free unless they race with a write: they only record the access in a per-thread stripe of
+ * read buffers, applied to the eviction policy in batches.
+ */
+public class PlayerRankCache {
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+    private static final int NIL = -1;
+    // Compared by identity, to tell a player not cached from one cached without a rank name
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String ABSENT = new String("absent");
+
+    private final RankRepository repository;
+    private final Loader loader;
+    private final int maximumSize;
+    private final int windowMax;
+    private final int protectedMax;
+
+    private final StampedLock lock = new StampedLock();
+    private final FrequencySketch sketch;
+
+    // Entry i of the cache is (mosts[i], leasts[i]) -> rankNames[i], linked in the queue queues[i]
+    private final long[] mosts;
+    private final long[] leasts;
+    private final String[] rankNames;
+    private final int[] previous;
+    private final int[] next;
+    private final byte[] queues;
+    private final int[] heads = {NIL, NIL, NIL};
+    private final int[] tails = {NIL, NIL, NIL};
+    private final int[] sizes = new int[3];
+    private int freeHead;
+    private int size;
+
+    // Open addressing on the UUID, holding entry + 1, 0 being empty
+    private final int[] index;
+    private final int indexMask;
+
+    // Accesses waiting to be applied to the sketch and the queues, striped by thread
+    private final ReadBuffer[] readBuffers;
+    private final int readBufferMask;
+
+    private final Map<UUID, CompletableFuture<Rank>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder deduplicatedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param loader       returns the rank name of a player, on an {@link AsyncUtils.Mode#IO} thread
+     * @param maximumSize  the number of players kept
+     */
+    public PlayerRankCache(RankRepository repository, Loader loader, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.repository = repository;
+        this.loader = loader;
+        this.maximumSize = maximumSize;
+        this.windowMax = Math.max(1, maximumSize / 100);
+        this.protectedMax = (maximumSize - this.windowMax) * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+
+        // One extra entry, evicted right after being inserted
+        int capacity = maximumSize + 1;
+        this.mosts = new long[capacity];
+        this.leasts = new long[capacity];
+        this.rankNames = new String[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+        this.queues = new byte[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.next[i] = i + 1 < capacity ? i + 1 : NIL;
+            this.queues[i] = NIL;
+        }
+
+        int indexLength = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.index = new int[indexLength];
+        this.indexMask = indexLength - 1;
+
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.readBuffers[i] = new ReadBuffer();
+        }
+        this.readBufferMask = stripes - 1;
+    }
+
+    /**
+     * @return the rank of the player if cached, without loading it
+     */
+    public Rank getIfPresent(UUID uuid) {
+        String rankName = read(uuid);
+        return rankName != ABSENT ? resolve(rankName) : null;
+    }
+
+    /**
+     * Loads the rank of the player if it is not cached. Concurrent loads of the same player share the same
+     * future. A load overtaken by {@link #set} or {@link #invalidate} does not cache what it loaded.
+     */
+    public CompletableFuture<Rank> load(UUID uuid) {
+        String cachedName = read(uuid);
+        if (cachedName != ABSENT) {
+            return CompletableFuture.completedFuture(resolve(cachedName));
+        }
+
+        CompletableFuture<Rank> created = new CompletableFuture<>();
+        CompletableFuture<Rank> existing = this.loading.putIfAbsent(uuid, created);
+        if (existing != null) {
+            this.deduplicatedLoads.increment();
+            return existing;
+        }
+
+        this.loads.increment();
+        AsyncUtils.run("player-rank-load", AsyncUtils.Mode.IO, () -> {
+            try {
+                return this.loader.load(uuid);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((rankName, error) -> {
+            if (error != null) {
+                this.loading.remove(uuid, created);
+                this.loadFailures.increment();
+                created.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                created.complete(resolve(storeLoaded(uuid, created, rankName)));
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Caches a new rank for the player, e.g. after it was changed.
+     *
+     * @param rank the rank of the player, or null for the default rank
+     */
+    public void set(UUID uuid, Rank rank) {
+        long stamp = this.lock.writeLock();
+        try {
+            // A load still running read the previous rank
+            this.loading.remove(uuid);
+            store(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), rank == null ? null : rank.getName(), true);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public void invalidate(UUID uuid) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.loading.remove(uuid);
+            int entry = find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if (entry != NIL) {
+                remove(entry);
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public void invalidateAll() {
+        long stamp = this.lock.writeLock();
+        try {
+            this.loading.clear();
+            for (byte queue = WINDOW; queue <= PROTECTED; queue++) {
+                while (this.heads[queue] != NIL) {
+                    remove(this.heads[queue]);
+                }
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return the share of {@link #getIfPresent} and {@link #load} calls answered from the cache, 1 if none
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long requests = hits + this.misses.sum();
+        return requests == 0 ? 1 : (double) hits / requests;
+    }
+
+    public long getLoadCount() {
+        return this.loads.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return this.loadFailures.sum();
+    }
+
+    /**
+     * @return the number of loads that joined a load of the same player already running
+     */
+    public long getDeduplicatedLoadCount() {
+        return this.deduplicatedLoads.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return the number of evictions of a player leaving the window, less frequent than the main cache's victim
+     */
+    public long getRejectedCount() {
+        return this.rejections.sum();
+    }
+
+    /**
+     * @return the cached rank name of the player, which may be null, or {@link #ABSENT}
+     */
+    private String read(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        int entry;
+        String rankName;
+        long stamp = this.lock.tryOptimisticRead();
+        entry = find(most, least);
+        rankName = entry != NIL ? this.rankNames[entry] : null;
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                entry = find(most, least);
+                rankName = entry != NIL ? this.rankNames[entry] : null;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        if (entry == NIL) {
+            this.misses.increment();
+            recordAccess(NIL, most, least);
+            return ABSENT;
+        }
+        this.hits.increment();
+        recordAccess(entry, most, least);
+        return rankName;
+    }
+
+    /**
+     * Caches a loaded rank name, unless {@link #set} or {@link #invalidate} ran since the load started.
+     *
+     * @return the rank name to complete the load with
+     */
+    private String storeLoaded(UUID uuid, CompletableFuture<Rank> load, String rankName) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        long stamp = this.lock.writeLock();
+        try {
+            if (this.loading.remove(uuid, load)) {
+                store(most, least, rankName, false);
+            }
+            int entry = find(most, least);
+            // A rank set while loading is more recent than the loaded one
+            return entry != NIL ? this.rankNames[entry] : rankName;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    private Rank resolve(String rankName) {
+        // A single snapshot for both lookups, so that the rank and the default one are consistent
+        RankSnapshot snapshot = this.repository.getSnapshot();
+        Rank rank = rankName == null ? null : snapshot.getRank(rankName);
+        return rank != null ? rank : snapshot.getDefaultRank();
+    }
+
+    /**
+     * Buffers the access, to count it and refresh the recency of the entry, if any, with the next write. Lossy:
+     * an access is dropped if the buffer is full or another reader of the same stripe races with it.
+     */
+    private void recordAccess(int entry, long most, long least) {
+        ReadBuffer buffer = this.readBuffers[(int) hash(Thread.currentThread().getId(), 0) & this.readBufferMask];
+        long position = buffer.writes.get();
+        if (position - buffer.reads >= ReadBuffer.SIZE) {
+            tryDrainReadBuffers();
+            return;
+        }
+        if (!buffer.writes.compareAndSet(position, position + 1)) {
+            return;
+        }
+        int slot = (int) position & (ReadBuffer.SIZE - 1);
+        buffer.hashes[slot] = hash(most, least);
+        buffer.entries[slot] = entry;
+        if (slot == ReadBuffer.SIZE - 1) {
+            tryDrainReadBuffers();
+        }
+    }
+
+    private void tryDrainReadBuffers() {
+        long stamp = this.lock.tryWriteLock();
+        if (stamp != 0) {
+            try {
+                drainReadBuffers();
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : this.readBuffers) {
+            long writes = buffer.writes.get();
+            for (long position = buffer.reads; position < writes; position++) {
+                int slot = (int) position & (ReadBuffer.SIZE - 1);
+                long hash = buffer.hashes[slot];
+                int entry = buffer.entries[slot];
+                this.sketch.increment(hash);
+                // The entry may have been evicted and reused since the read
+                if (entry != NIL && isLinked(entry) && hash(this.mosts[entry], this.leasts[entry]) == hash) {
+                    onHit(entry);
+                }
+            }
+            buffer.reads = writes;
+        }
+    }
+
+    /**
+     * Called under the write lock.
+     */
+    private void store(long most, long least, String rankName, boolean overwrite) {
+        drainReadBuffers();
+        int entry = find(most, least);
+        if (entry != NIL) {
+            if (overwrite) {
+                this.rankNames[entry] = rankName;
+                onHit(entry);
+            }
+            return;
+        }
+
+        entry = this.freeHead;
+        this.freeHead = this.next[entry];
+        this.mosts[entry] = most;
+        this.leasts[entry] = least;
+        this.rankNames[entry] = rankName;
+        insertIndex(entry);
+        addFirst(WINDOW, entry);
+        this.size++;
+        evict();
+    }
+
+    private void onHit(int entry) {
+        byte queue = this.queues[entry];
+        unlink(entry);
+        if (queue == PROBATION) {
+            addFirst(PROTECTED, entry);
+            while (this.sizes[PROTECTED] > this.protectedMax) {
+                int demoted = this.tails[PROTECTED];
+                unlink(demoted);
+                addFirst(PROBATION, demoted);
+            }
+        } else {
+            addFirst(queue, entry);
+        }
+    }
+
+    private void evict() {
+        while (this.sizes[WINDOW] > this.windowMax) {
+            int candidate = this.tails[WINDOW];
+            unlink(candidate);
+            addFirst(PROBATION, candidate);
+        }
+
+        while (this.size > this.maximumSize) {
+            // The candidate just left the window, the victim is the least recently used of the main cache
+            int candidate = this.heads[PROBATION];
+            int victim = this.tails[PROBATION];
+            if (victim == NIL) {
+                victim = this.tails[PROTECTED] != NIL ? this.tails[PROTECTED] : this.tails[WINDOW];
+            } else if (candidate != victim) {
+                int candidateFrequency = this.sketch.frequency(hash(this.mosts[candidate], this.leasts[candidate]));
+                int victimFrequency = this.sketch.frequency(hash(this.mosts[victim], this.leasts[victim]));
+                if (candidateFrequency <= victimFrequency) {
+                    victim = candidate;
+                    this.rejections.increment();
+                }
+            }
+            remove(victim);
+            this.evictions.increment();
+        }
+    }
+
+    private void remove(int entry) {
+        unlink(entry);
+        removeIndex(entry);
+        this.rankNames[entry] = null;
+        this.queues[entry] = NIL;
+        this.next[entry] = this.freeHead;
+        this.freeHead = entry;
+        this.size--;
+    }
+
+    private boolean isLinked(int entry) {
+        return this.queues[entry] != NIL;
+    }
+
+    private void addFirst(byte queue, int entry) {
+        int head = this.heads[queue];
+        this.queues[entry] = queue;
+        this.previous[entry] = NIL;
+        this.next[entry] = head;
+        if (head != NIL) {
+            this.previous[head] = entry;
+        } else {
+            this.tails[queue] = entry;
+        }
+        this.heads[queue] = entry;
+        this.sizes[queue]++;
+    }
+
+    private void unlink(int entry) {
+        byte queue = this.queues[entry];
+        int before = this.previous[entry];
+        int after = this.next[entry];
+        if (before != NIL) {
+            this.next[before] = after;
+        } else {
+            this.heads[queue] = after;
+        }
+        if (after != NIL) {
+            this.previous[after] = before;
+        } else {
+            this.tails[queue] = before;
+        }
+        this.sizes[queue]--;
+    }
+
+    /**
+     * Safe to call without the lock: a concurrent write can make it miss, never fail.
+     */
+    private int find(long most, long least) {
+        int[] index = this.index;
+        int slot = (int) hash(most, least) & this.indexMask;
+        for (int probes = 0; probes <= this.indexMask; probes++) {
+            int entry = index[slot] - 1;
+            if (entry < 0) {
+                return NIL;
+            }
+            if (this.mosts[entry] == most && this.leasts[entry] == least) {
+                return entry;
+            }
+            slot = (slot + 1) & this.indexMask;
+        }
+        return NIL;
+    }
+
+    private void insertIndex(int entry) {
+        int slot = (int) hash(this.mosts[entry], this.leasts[entry]) & this.indexMask;
+        while (this.index[slot] != 0) {
+            slot = (slot + 1) & this.indexMask;
+        }
+        this.index[slot] = entry + 1;
+    }
+
+    private void removeIndex(int entry) {
+        int slot = (int) hash(this.mosts[entry], this.leasts[entry]) & this.indexMask;
+        while (this.index[slot] != entry + 1) {
+            slot = (slot + 1) & this.indexMask;
+        }
+
+        // Shifts back the following entries of the probe sequence, so that lookups never need tombstones
+        int hole = slot;
+        for (int current = (hole + 1) & this.indexMask; this.index[current] != 0; current = (current + 1) & this.indexMask) {
+            int moved = this.index[current] - 1;
+            int home = (int) hash(this.mosts[moved], this.leasts[moved]) & this.indexMask;
+            if (((current - home) & this.indexMask) >= ((current - hole) & this.indexMask)) {
+                this.index[hole] = this.index[current];
+                hole = current;
+            }
+        }
+        this.index[hole] = 0;
+    }
+
+    private static long hash(long most, long least) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static final class ReadBuffer {
+        private static final int SIZE = 16;
+
+        private final AtomicLong writes = new AtomicLong();
+        // Written under the write lock
+        private volatile long reads;
+        private final long[] hashes = new long[SIZE];
+        private final int[] entries = new int[SIZE];
+    }
+
+    /**
+     * Finds the rank of a player in storage.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @return the name of the player's rank, or null for the default rank
+         */
+        String load(UUID uuid) throws Exception;
+    }
+}
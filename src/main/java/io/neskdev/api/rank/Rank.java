@@ -19,19 +19,32 @@ public interface Rank {
 
     Set<String> getPermissions();
 
+    /**
+     * Returns the compiled permissions of this rank, see {@link PermissionIndex}, or null if it has none.
+     * <p>
+     * Implementations opting in should build the index once when the rank is loaded, for instance with
+     * {@link PermissionIndex#compile(Rank, java.util.Collection)}, and return the cached instance. Without
+     * one, permissions are plain exact matches against {@link #getPermissions()}.
+     */
+    default PermissionIndex getPermissionIndex() {
+        return null;
+    }
+
     default boolean hasPermission(String permission) {
-        return getPermissions().contains(permission);
+        PermissionIndex index = getPermissionIndex();
+        return index != null ? index.hasPermission(permission) : getPermissions().contains(permission);
     }
 
     default Predicate<String> hasPermissionPredicate() {
-        return getPermissions()::contains;
+        PermissionIndex index = getPermissionIndex();
+        return index != null ? index : getPermissions()::contains;
     }
 
     Document toDocument();
     String toJson();
 
     static Rank fromDocument(Document document) {
-        return (Rank) fromJson(document.toJson());
+        return RankCodec.DEFAULT.fromDocument(document);
     }
 
     static Object fromJson(Object o) {
@@ -0,0 +1,170 @@
+package io.neskdev.api.rank;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.*;
+
+/**
+ * Mongo {@link Codec} reading and writing ranks straight from and to BSON.
+ * <p>
+ * Documents have the shape {@code {name, prefix, power, defaultRank, permissions: [...]}}; unknown fields
+ * (such as {@code _id}) are skipped. Register it through {@link RankCodecProvider}.
+ */
+public class RankCodec implements Codec<Rank> {
+
+    public static final String NAME = "name";
+    public static final String PREFIX = "prefix";
+    public static final String POWER = "power";
+    public static final String DEFAULT_RANK = "defaultRank";
+    public static final String PERMISSIONS = "permissions";
+
+    static final RankCodec DEFAULT = new RankCodec();
+
+    private final RankFactory factory;
+
+    public RankCodec() {
+        this(SimpleRank::new);
+    }
+
+    public RankCodec(RankFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Rank decode(BsonReader reader, DecoderContext decoderContext) {
+        String name = null;
+        String prefix = null;
+        int power = 0;
+        boolean defaultRank = false;
+        Set<String> permissions = Set.of();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String field = reader.readName();
+            BsonType type = reader.getCurrentBsonType();
+            if (type == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+
+            switch (field) {
+                case NAME:
+                    name = reader.readString();
+                    break;
+                case PREFIX:
+                    prefix = reader.readString();
+                    break;
+                case POWER:
+                    power = readInt(reader, type);
+                    break;
+                case DEFAULT_RANK:
+                    defaultRank = reader.readBoolean();
+                    break;
+                case PERMISSIONS:
+                    permissions = readPermissions(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.readEndDocument();
+
+        return this.factory.create(name, prefix, power, defaultRank, permissions);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Rank rank, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writeString(writer, NAME, rank.getName());
+        writeString(writer, PREFIX, rank.getPrefix());
+        writer.writeInt32(POWER, rank.getPower());
+        writer.writeBoolean(DEFAULT_RANK, rank.isDefaultRank());
+
+        writer.writeStartArray(PERMISSIONS);
+        Set<String> permissions = rank.getPermissions();
+        if (permissions != null) {
+            for (String permission : permissions) {
+                writer.writeString(permission);
+            }
+        }
+        writer.writeEndArray();
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Rank> getEncoderClass() {
+        return Rank.class;
+    }
+
+    /**
+     * Builds a rank from an already decoded {@link Document}, without going through JSON.
+     */
+    public Rank fromDocument(Document document) {
+        Object power = document.get(POWER);
+        List<String> permissions = document.getList(PERMISSIONS, String.class);
+
+        return this.factory.create(
+                document.getString(NAME),
+                document.getString(PREFIX),
+                power instanceof Number ? ((Number) power).intValue() : 0,
+                document.getBoolean(DEFAULT_RANK, false),
+                permissions == null ? Set.of() : Set.copyOf(permissions)
+        );
+    }
+
+    /**
+     * Builds the {@link Document} counterpart of {@link #encode}, for {@link Rank#toDocument()} implementations.
+     */
+    public static Document toDocument(Rank rank) {
+        Set<String> permissions = rank.getPermissions();
+        return new Document(NAME, rank.getName())
+                .append(PREFIX, rank.getPrefix())
+                .append(POWER, rank.getPower())
+                .append(DEFAULT_RANK, rank.isDefaultRank())
+                .append(PERMISSIONS, permissions == null ? List.of() : new ArrayList<>(permissions));
+    }
+
+    private static int readInt(BsonReader reader, BsonType type) {
+        switch (type) {
+            case INT64:
+                return (int) reader.readInt64();
+            case DOUBLE:
+                return (int) reader.readDouble();
+            default:
+                return reader.readInt32();
+        }
+    }
+
+    private static Set<String> readPermissions(BsonReader reader) {
+        List<String> permissions = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            permissions.add(reader.readString());
+        }
+        reader.readEndArray();
+        return Set.copyOf(permissions);
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value == null) {
+            writer.writeNull(name);
+        } else {
+            writer.writeString(name, value);
+        }
+    }
+
+    /**
+     * Creates the {@link Rank} instances returned by the codec.
+     */
+    @FunctionalInterface
+    public interface RankFactory {
+        Rank create(String name, String prefix, int power, boolean defaultRank, Set<String> permissions);
+    }
+}
@@ -0,0 +1,46 @@
+package io.neskdev.api.rank;
+
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Provides {@link RankCodec} to the Mongo driver, e.g.
+ * {@code CodecRegistries.fromRegistries(MongoClientSettings.getDefaultCodecRegistry(), CodecRegistries.fromProviders(new RankCodecProvider()))}.
+ * <p>
+ * Only {@link Rank} and the class the codec decodes to are provided: other implementations of {@link Rank}
+ * are left to the rest of the registry, since the codec could not decode them.
+ */
+public class RankCodecProvider implements CodecProvider {
+
+    private final RankCodec codec;
+    private final Class<? extends Rank> rankClass;
+
+    public RankCodecProvider() {
+        this(new RankCodec(), SimpleRank.class);
+    }
+
+    /**
+     * Provides the codec for {@link Rank} only, whatever its factory creates.
+     */
+    public RankCodecProvider(RankCodec codec) {
+        this(codec, Rank.class);
+    }
+
+    /**
+     * @param rankClass the class of the ranks created by the factory of the codec
+     */
+    public RankCodecProvider(RankCodec codec, Class<? extends Rank> rankClass) {
+        this.codec = codec;
+        this.rankClass = rankClass;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (clazz == Rank.class || clazz == this.rankClass) {
+            return (Codec<T>) this.codec;
+        }
+        return null;
+    }
+}
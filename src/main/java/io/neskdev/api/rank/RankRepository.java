@@ -12,4 +12,26 @@ public interface RankRepository {
 
     void deleteRank(Rank rank);
 
+    /**
+     * Returns every rank indexed by name and power, see {@link RankSnapshot}.
+     * <p>
+     * The default implementation builds a new snapshot from {@link #getRanks()} on every call. Caching
+     * implementations should publish one per change and return it.
+     */
+    default RankSnapshot getSnapshot() {
+        return RankSnapshot.of(getRanks());
+    }
+
+    /**
+     * Called once a mutation was written to the database without going through this repository, e.g. by a
+     * {@link WriteBehindRankRepository} it is the delegate of.
+     * <p>
+     * The default does nothing, which suits repositories reading the database on every call. Repositories
+     * keeping ranks in memory must apply the mutation, otherwise it disappears from their reads once written.
+     *
+     * @param rank the written rank, or null if it was deleted
+     */
+    default void applyWrite(String name, Rank rank) {
+    }
+
 }
\ No newline at end of file
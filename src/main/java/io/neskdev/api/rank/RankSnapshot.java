@@ -0,0 +1,181 @@
+package io.neskdev.api.rank;
+
+import java.util.*;
+
+/**
+ * Immutable view of every rank, indexed by name and ordered by power.
+ * <p>
+ * Built once per change of the ranks and published as a whole, so that a reader gets a consistent view with a
+ * single volatile read of the field holding it. Lookups do not lock nor allocate. Ranks are ordered by
+ * ascending power, then by name.
+ */
+public final class RankSnapshot {
+
+    public static final RankSnapshot EMPTY = new RankSnapshot(Collections.emptyMap(), new Rank[0]);
+
+    private static final Comparator<Rank> POWER_ORDER = Comparator.comparingInt(Rank::getPower)
+            .thenComparing(Rank::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, Rank> byName;
+    private final Rank[] byPower;
+    private final int[] powers;
+    private final List<Rank> ranks;
+    private final Rank defaultRank;
+
+    private RankSnapshot(Map<String, Rank> byName, Rank[] byPower) {
+        this.byName = byName;
+        this.byPower = byPower;
+        this.powers = new int[byPower.length];
+        Rank defaultRank = null;
+        for (int i = 0; i < byPower.length; i++) {
+            this.powers[i] = byPower[i].getPower();
+            // The lowest default rank wins if several are flagged
+            if (defaultRank == null && byPower[i].isDefaultRank()) {
+                defaultRank = byPower[i];
+            }
+        }
+        this.ranks = Collections.unmodifiableList(Arrays.asList(byPower));
+        this.defaultRank = defaultRank;
+    }
+
+    /**
+     * @param ranks ranks with distinct names; the last one wins otherwise
+     */
+    public static RankSnapshot of(Collection<? extends Rank> ranks) {
+        if (ranks.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, Rank> byName = new HashMap<>(ranks.size() * 2);
+        for (Rank rank : ranks) {
+            byName.put(rank.getName(), rank);
+        }
+        return of(byName);
+    }
+
+    private static RankSnapshot of(Map<String, Rank> byName) {
+        Rank[] byPower = byName.values().toArray(new Rank[0]);
+        Arrays.sort(byPower, POWER_ORDER);
+        return new RankSnapshot(Collections.unmodifiableMap(byName), byPower);
+    }
+
+    /**
+     * @return a copy of this snapshot with the rank added, or replacing the rank of the same name
+     */
+    public RankSnapshot with(Rank rank) {
+        Map<String, Rank> byName = new HashMap<>(this.byName);
+        byName.put(rank.getName(), rank);
+        return of(byName);
+    }
+
+    /**
+     * @return a copy of this snapshot without the rank of this name, or this snapshot if there is none
+     */
+    public RankSnapshot without(String name) {
+        if (!this.byName.containsKey(name)) {
+            return this;
+        }
+        Map<String, Rank> byName = new HashMap<>(this.byName);
+        byName.remove(name);
+        return byName.isEmpty() ? EMPTY : of(byName);
+    }
+
+    public Rank getRank(String name) {
+        return this.byName.get(name);
+    }
+
+    public boolean contains(String name) {
+        return this.byName.containsKey(name);
+    }
+
+    /**
+     * @return every rank, by ascending power
+     */
+    public List<Rank> getRanks() {
+        return this.ranks;
+    }
+
+    public Map<String, Rank> asMap() {
+        return this.byName;
+    }
+
+    public int size() {
+        return this.byPower.length;
+    }
+
+    public boolean isEmpty() {
+        return this.byPower.length == 0;
+    }
+
+    /**
+     * @return the rank flagged as default, the lowest one if several are, or null
+     */
+    public Rank getDefaultRank() {
+        return this.defaultRank;
+    }
+
+    /**
+     * @return the rank with the lowest power, or null if there is none
+     */
+    public Rank lowest() {
+        return this.byPower.length == 0 ? null : this.byPower[0];
+    }
+
+    public Rank highest() {
+        return this.byPower.length == 0 ? null : this.byPower[this.byPower.length - 1];
+    }
+
+    /**
+     * @return the rank right above the given one, i.e. the lowest rank of a strictly greater power, or null
+     */
+    public Rank higher(Rank rank) {
+        int index = firstAbove(rank.getPower());
+        return index < this.byPower.length ? this.byPower[index] : null;
+    }
+
+    /**
+     * @return the rank right below the given one, i.e. the highest rank of a strictly lower power, or null
+     */
+    public Rank lower(Rank rank) {
+        int index = firstAtLeast(rank.getPower()) - 1;
+        return index >= 0 ? this.byPower[index] : null;
+    }
+
+    /**
+     * @return the lowest rank with at least this power, or null
+     */
+    public Rank atLeast(int power) {
+        int index = firstAtLeast(power);
+        return index < this.byPower.length ? this.byPower[index] : null;
+    }
+
+    /**
+     * @return the position of the rank in {@link #getRanks()}, e.g. to sort the tab list, or -1 if it is not
+     * part of this snapshot
+     */
+    public int indexOf(Rank rank) {
+        for (int i = firstAtLeast(rank.getPower()); i < this.byPower.length && this.powers[i] == rank.getPower(); i++) {
+            if (Objects.equals(this.byPower[i].getName(), rank.getName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int firstAtLeast(int power) {
+        int low = 0;
+        int high = this.powers.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.powers[middle] < power) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstAbove(int power) {
+        return power == Integer.MAX_VALUE ? this.powers.length : firstAtLeast(power + 1);
+    }
+}
@@ -0,0 +1,51 @@
+package io.neskdev.api.rank;
+
+import io.neskdev.api.utils.GsonProvider;
+import lombok.Getter;
+import org.bson.Document;
+
+import java.util.Set;
+
+/**
+ * Immutable {@link Rank}, used by {@link RankCodec} by default.
+ */
+@Getter
+public class SimpleRank implements Rank {
+
+    private final String name;
+    private final String prefix;
+    private final int power;
+    private final boolean defaultRank;
+    private final Set<String> permissions;
+    private transient volatile PermissionIndex permissionIndex;
+
+    public SimpleRank(String name, String prefix, int power, boolean defaultRank, Set<String> permissions) {
+        this.name = name;
+        this.prefix = prefix;
+        this.power = power;
+        this.defaultRank = defaultRank;
+        this.permissions = Set.copyOf(permissions);
+        this.permissionIndex = PermissionIndex.compile(this.permissions);
+    }
+
+    @Override
+    public PermissionIndex getPermissionIndex() {
+        PermissionIndex index = this.permissionIndex;
+        if (index == null) {
+            // Instances deserialized by Gson skip the constructor and the transient index, compiled once here
+            index = PermissionIndex.compile(this.permissions);
+            this.permissionIndex = index;
+        }
+        return index;
+    }
+
+    @Override
+    public Document toDocument() {
+        return RankCodec.toDocument(this);
+    }
+
+    @Override
+    public String toJson() {
+        return GsonProvider.GSON.toJson(this);
+    }
+}
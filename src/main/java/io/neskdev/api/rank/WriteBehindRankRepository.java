@@ -0,0 +1,402 @@
+package io.neskdev.api.rank;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.*;
+import io.neskdev.api.database.AsyncCollection;
+import io.neskdev.api.utils.AsyncUtils;
+import org.bson.Document;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RankRepository} decorator queueing {@link #addRank(Rank)} and {@link #deleteRank(Rank)} in memory,
+ * and writing them to Mongo in batches.
+ * <p>
+ * A mutation returns at once and is visible to {@link #getRank(String)}, {@link #getRanks()} and
+ * {@link #getSnapshot()} right away; the other reads go to the delegate. Mutations of the same rank name
+ * coalesce while queued, so only the last one is written. The queue is written as a single unordered
+ * {@code bulkWrite}, of upserts and deletes keyed on the rank name, every {@code flushInterval} or as soon as
+ * it holds {@code maxBatchSize} ranks. Only the mutations that failed are queued again for the next flush,
+ * unless a newer mutation of the same rank replaced them, so that a rejected document does not hold back the
+ * others. {@link #close()} writes what is left.
+ * <p>
+ * Once written, a mutation is handed to the delegate through {@link RankRepository#applyWrite(String, Rank)},
+ * before it stops being visible from the queue. A {@link CachedRankRepository} updates its snapshot and
+ * broadcasts the invalidation to the other nodes; a delegate keeping ranks in memory must implement it too.
+ */
+public class WriteBehindRankRepository implements RankRepository, AutoCloseable {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final RankRepository delegate;
+    private final AsyncCollection<Document> collection;
+    private final int maxBatchSize;
+
+    // Mutations not written yet, by rank name; a null rank is a deletion
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    // Mutations of the batch being written, still visible to reads
+    private final Map<String, Pending> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Bumped after every change of the queued mutations, to tell whether the overlaid snapshot is current
+    private final AtomicLong queueVersion = new AtomicLong();
+    private volatile Overlay overlay;
+    private final AtomicBoolean sizeFlushQueued = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture(null);
+
+    private final LongAdder mutations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private volatile long lastFlushNanos;
+
+    private final long flushTaskId;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate   answers the reads of ranks without a queued mutation
+     * @param collection the rank collection, written with {@link RankCodec#toDocument(Rank)}
+     */
+    public WriteBehindRankRepository(RankRepository delegate, AsyncCollection<Document> collection, int maxBatchSize, long flushInterval, TimeUnit unit) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.delegate = delegate;
+        this.collection = collection;
+        this.maxBatchSize = maxBatchSize;
+        this.flushTaskId = AsyncUtils.runRepeating("rank-write-behind", this::flush, flushInterval, flushInterval, unit, AsyncUtils.Mode.IO);
+    }
+
+    @Override
+    public Rank getRank(String name) {
+        Pending queued = queued(name);
+        return queued != null ? queued.rank : this.delegate.getRank(name);
+    }
+
+    @Override
+    public List<Rank> getRanks() {
+        if (this.pending.isEmpty() && this.inFlight.isEmpty()) {
+            return this.delegate.getRanks();
+        }
+        return getSnapshot().getRanks();
+    }
+
+    /**
+     * @return the snapshot of the delegate, with the queued mutations applied. It is only built again when
+     * either changes, so reads stay a field read as long as the delegate publishes its snapshot
+     */
+    @Override
+    public RankSnapshot getSnapshot() {
+        long version = this.queueVersion.get();
+        RankSnapshot stored = this.delegate.getSnapshot();
+        if (this.pending.isEmpty() && this.inFlight.isEmpty()) {
+            return stored;
+        }
+
+        Overlay current = this.overlay;
+        if (current != null && current.stored == stored && current.version == version) {
+            return current.snapshot;
+        }
+        Map<String, Rank> byName = new HashMap<>(stored.asMap());
+        overlay(byName, this.inFlight);
+        overlay(byName, this.pending);
+        RankSnapshot snapshot = RankSnapshot.of(byName.values());
+        this.overlay = new Overlay(stored, version, snapshot);
+        return snapshot;
+    }
+
+    @Override
+    public void addRank(Rank rank) {
+        addRankAsync(rank);
+    }
+
+    @Override
+    public void deleteRank(Rank rank) {
+        deleteRankAsync(rank);
+    }
+
+    /**
+     * @return completed once the rank, or a later mutation of it, has been written
+     */
+    public CompletableFuture<Void> addRankAsync(Rank rank) {
+        return enqueue(rank.getName(), rank);
+    }
+
+    public CompletableFuture<Void> deleteRankAsync(Rank rank) {
+        return enqueue(rank.getName(), null);
+    }
+
+    /**
+     * Writes every mutation queued so far.
+     *
+     * @return completed once they are written, or exceptionally if some of them could not be, in which case
+     * those stay queued
+     */
+    public CompletableFuture<Void> flush() {
+        synchronized (this.flushLock) {
+            // One batch at a time, in order, so that a rank is never written by two concurrent batches
+            CompletableFuture<Void> flush = this.lastFlush
+                    .handle((ignored, error) -> null)
+                    .thenCompose(ignored -> writeBatch());
+            this.lastFlush = flush;
+            return flush;
+        }
+    }
+
+    /**
+     * @return the number of ranks waiting to be written, excluding the batch being written
+     */
+    public int getQueueDepth() {
+        return this.pending.size();
+    }
+
+    public int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    public long getMutationCount() {
+        return this.mutations.sum();
+    }
+
+    /**
+     * @return the number of mutations replaced by a later one before being written
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.sum();
+    }
+
+    public long getWrittenCount() {
+        return this.written.sum();
+    }
+
+    public long getFlushCount() {
+        return this.flushes.sum();
+    }
+
+    public long getFailedFlushCount() {
+        return this.failedFlushes.sum();
+    }
+
+    /**
+     * @return the duration of the last bulk write, in nanoseconds
+     */
+    public long getLastFlushNanos() {
+        return this.lastFlushNanos;
+    }
+
+    /**
+     * Stops the periodic flush and writes what is left, waiting for it at most 10 seconds. Mutations that could
+     * not be written complete exceptionally.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        AsyncUtils.stopTask(this.flushTaskId);
+
+        try {
+            flush().get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.out.println("[NeskAPI] Unable to write " + (this.pending.size() + this.inFlight.size())
+                    + " queued rank(s) on shutdown: " + e);
+        }
+
+        IllegalStateException lost = new IllegalStateException("Rank repository closed before the write completed");
+        for (Pending queued : this.pending.values()) {
+            queued.acknowledgement.completeExceptionally(lost);
+        }
+        this.pending.clear();
+        this.queueVersion.incrementAndGet();
+    }
+
+    private CompletableFuture<Void> enqueue(String name, Rank rank) {
+        if (this.closed) {
+            throw new IllegalStateException("Rank repository closed");
+        }
+        this.mutations.increment();
+        long sequence = this.sequence.incrementAndGet();
+        Pending queued = this.pending.compute(name, (ignored, previous) -> {
+            if (previous == null) {
+                return new Pending(name, rank, sequence, new CompletableFuture<>());
+            }
+            this.coalesced.increment();
+            // Keeps the place of the first mutation in the batch, and its acknowledgement
+            return new Pending(name, rank, previous.sequence, previous.acknowledgement);
+        });
+        this.queueVersion.incrementAndGet();
+
+        if (this.pending.size() >= this.maxBatchSize && this.sizeFlushQueued.compareAndSet(false, true)) {
+            flush();
+        }
+        return queued.acknowledgement;
+    }
+
+    private CompletableFuture<Void> writeBatch() {
+        this.sizeFlushQueued.set(false);
+        if (this.pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<Pending> batch = new ArrayList<>(this.pending.size());
+        for (Pending queued : this.pending.values()) {
+            // Visible in flight before leaving the queue, so that reads never miss it
+            this.inFlight.put(queued.name, queued);
+            if (this.pending.remove(queued.name, queued)) {
+                batch.add(queued);
+            } else {
+                this.inFlight.remove(queued.name, queued);
+            }
+        }
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        batch.sort(Comparator.comparingLong(queued -> queued.sequence));
+
+        long start = System.nanoTime();
+        CompletableFuture<?> write;
+        try {
+            // Names are unique within a batch, so the order of the requests does not matter
+            write = this.collection.bulkWrite(toRequests(batch), new BulkWriteOptions().ordered(false));
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        write.whenComplete((ignored, error) -> {
+            this.lastFlushNanos = System.nanoTime() - start;
+            this.flushes.increment();
+            BitSet failed = failedRequests(error, batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Pending queued = batch.get(i);
+                if (failed.get(i)) {
+                    requeue(queued);
+                } else {
+                    this.written.increment();
+                    applyToDelegate(queued);
+                    this.inFlight.remove(queued.name, queued);
+                    queued.acknowledgement.complete(null);
+                }
+            }
+            this.queueVersion.incrementAndGet();
+
+            if (failed.isEmpty()) {
+                result.complete(null);
+                return;
+            }
+            this.failedFlushes.increment();
+            System.out.println("[NeskAPI] Unable to write " + failed.cardinality() + " of " + batch.size()
+                    + " rank(s), retrying on the next flush: " + error);
+            result.completeExceptionally(error);
+        });
+        return result;
+    }
+
+    /**
+     * @return the indexes of the requests to write again: those rejected by Mongo, or every one if the outcome
+     * of the others is unknown
+     */
+    private static BitSet failedRequests(Throwable error, int size) {
+        BitSet failed = new BitSet(size);
+        if (error == null) {
+            return failed;
+        }
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof MongoBulkWriteException && ((MongoBulkWriteException) error).getWriteConcernError() == null) {
+            for (BulkWriteError writeError : ((MongoBulkWriteException) error).getWriteErrors()) {
+                failed.set(writeError.getIndex());
+            }
+        } else {
+            failed.set(0, size);
+        }
+        return failed;
+    }
+
+    private void requeue(Pending queued) {
+        Pending newer = this.pending.putIfAbsent(queued.name, queued);
+        if (newer != null) {
+            // A later mutation replaced this one, and acknowledges it once written
+            newer.acknowledgement.whenComplete((value, failure) -> {
+                if (failure == null) {
+                    queued.acknowledgement.complete(null);
+                } else {
+                    queued.acknowledgement.completeExceptionally(failure);
+                }
+            });
+        }
+        this.inFlight.remove(queued.name, queued);
+    }
+
+    private void applyToDelegate(Pending queued) {
+        try {
+            this.delegate.applyWrite(queued.name, queued.rank);
+        } catch (RuntimeException e) {
+            System.out.println("[NeskAPI] Unable to apply the write of rank " + queued.name + " to the delegate: " + e);
+        }
+    }
+
+    private static List<WriteModel<Document>> toRequests(List<Pending> batch) {
+        List<WriteModel<Document>> requests = new ArrayList<>(batch.size());
+        for (Pending queued : batch) {
+            if (queued.rank != null) {
+                requests.add(new ReplaceOneModel<>(Filters.eq(RankCodec.NAME, queued.name), RankCodec.toDocument(queued.rank),
+                        new ReplaceOptions().upsert(true)));
+            } else {
+                requests.add(new DeleteOneModel<>(Filters.eq(RankCodec.NAME, queued.name)));
+            }
+        }
+        return requests;
+    }
+
+    private Pending queued(String name) {
+        Pending queued = this.pending.get(name);
+        return queued != null ? queued : this.inFlight.get(name);
+    }
+
+    private static void overlay(Map<String, Rank> byName, Map<String, Pending> mutations) {
+        for (Pending queued : mutations.values()) {
+            if (queued.rank != null) {
+                byName.put(queued.name, queued.rank);
+            } else {
+                byName.remove(queued.name);
+            }
+        }
+    }
+
+    private static final class Overlay {
+        private final RankSnapshot stored;
+        private final long version;
+        private final RankSnapshot snapshot;
+
+        private Overlay(RankSnapshot stored, long version, RankSnapshot snapshot) {
+            this.stored = stored;
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class Pending {
+        private final String name;
+        private final Rank rank;
+        private final long sequence;
+        private final CompletableFuture<Void> acknowledgement;
+
+        private Pending(String name, Rank rank, long sequence, CompletableFuture<Void> acknowledgement) {
+            this.name = name;
+            this.rank = rank;
+            this.sequence = sequence;
+            this.acknowledgement = acknowledgement;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.neskdev.api.utils;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
@@ -8,23 +9,157 @@ public class AsyncUtils {
 
     // Utilise ForkJoinPool.commonPool() ou un ThreadPoolExecutor pour Java 17
     private static final ExecutorService DEFAULT_EXECUTOR = createDefaultExecutor();
+    // Threads virtuels si disponibles (Java 21+), sinon un pool borné de threads plateforme
+    private static final ExecutorService IO_EXECUTOR = VirtualThreads.newExecutor(
+            "NeskAPI-IO", Math.max(16, Runtime.getRuntime().availableProcessors() * 4)
+    );
+    private static final ExecutorService CPU_EXECUTOR = VirtualThreads.newPlatformPool(
+            "NeskAPI-CPU", Runtime.getRuntime().availableProcessors()
+    );
     private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(
             Math.max(1, Runtime.getRuntime().availableProcessors() / 4)
     );
     private static final ConcurrentMap<Long, ScheduledFuture<?>> TASKS = new ConcurrentHashMap<>();
     private static final AtomicLong ID_GENERATOR = new AtomicLong(0);
+    // Catégories de TaskMetrics des tâches sans nom, par mode
+    private static final String[] DEFAULT_CATEGORIES = {"async-common", "async-io", "async-cpu"};
+    // Executors de runLater et runRepeating mesurés par TaskMetrics, par mode puis par catégorie, créés une
+    // seule fois par catégorie : planifier une tâche n'alloue rien de plus quand les métriques sont désactivées
+    private static final ConcurrentMap<String, Executor>[] METERED_EXECUTORS = createMeteredExecutors();
+
+    private static volatile Mode defaultMode = Mode.COMMON;
+    private static volatile TimerBackend timerBackend = TimerBackend.HEAP;
+    private static volatile TimingWheel timingWheel;
 
     private static ExecutorService createDefaultExecutor() {
         return ForkJoinPool.commonPool();
     }
 
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<String, Executor>[] createMeteredExecutors() {
+        ConcurrentMap<String, Executor>[] executors = new ConcurrentMap[Mode.values().length];
+        for (int i = 0; i < executors.length; i++) {
+            executors[i] = new ConcurrentHashMap<>();
+        }
+        return executors;
+    }
+
+    /**
+     * Modes d'exécution disponibles
+     */
+    public enum Mode {
+        /**
+         * ForkJoinPool.commonPool(), partagé avec les parallel streams et les autres plugins
+         */
+        COMMON,
+        /**
+         * Un thread virtuel par tâche, pour les appels bloquants (Redis, Mongo, HTTP)
+         */
+        IO,
+        /**
+         * Pool de threads plateforme borné au nombre de coeurs, pour le calcul
+         */
+        CPU
+    }
+
+    /**
+     * Implémentations disponibles pour runLater et runRepeating
+     */
+    public enum TimerBackend {
+        /**
+         * ScheduledThreadPoolExecutor, précis mais O(log n) par planification et annulation
+         */
+        HEAP,
+        /**
+         * Roue temporelle hachée, O(1) et sans allocation, arrondie à la résolution du tick
+         */
+        WHEEL
+    }
+
+    /**
+     * Change l'implémentation utilisée par les prochains runLater et runRepeating.
+     * Les tâches déjà programmées restent sur leur implémentation et peuvent toujours être arrêtées.
+     * @param backend La nouvelle implémentation
+     */
+    public static void setTimerBackend(TimerBackend backend) {
+        timerBackend = backend;
+    }
+
+    public static TimerBackend getTimerBackend() {
+        return timerBackend;
+    }
+
+    /**
+     * Configure la roue temporelle et l'active. Doit être appelé avant la première tâche programmée sur la roue.
+     * @param tick La résolution du tick
+     * @param unit L'unité de temps du tick
+     * @param wheelSize Le nombre de cases de la roue, arrondi à la puissance de deux supérieure
+     */
+    public static synchronized void useTimingWheel(long tick, TimeUnit unit, int wheelSize) {
+        if (timingWheel != null && timingWheel.isStarted()) {
+            throw new IllegalStateException("The timing wheel is already running");
+        }
+        timingWheel = new TimingWheel("NeskAPI-TimingWheel", tick, unit, wheelSize);
+        timerBackend = TimerBackend.WHEEL;
+    }
+
+    private static TimingWheel timingWheel() {
+        TimingWheel wheel = timingWheel;
+        if (wheel == null) {
+            synchronized (AsyncUtils.class) {
+                wheel = timingWheel;
+                if (wheel == null) {
+                    // 10 ms x 512 cases : un tour de roue toutes les ~5 secondes
+                    wheel = timingWheel = new TimingWheel("NeskAPI-TimingWheel", 10, TimeUnit.MILLISECONDS, 512);
+                }
+            }
+        }
+        return wheel;
+    }
+
+    /**
+     * Change le mode utilisé par run, runLater et runRepeating
+     * @param mode Le nouveau mode par défaut
+     */
+    public static void setDefaultMode(Mode mode) {
+        defaultMode = mode;
+    }
+
+    public static Mode getDefaultMode() {
+        return defaultMode;
+    }
+
+    /**
+     * Retourne l'executor associé à un mode
+     * @param mode Le mode d'exécution
+     * @return L'executor du mode
+     */
+    public static ExecutorService getExecutor(Mode mode) {
+        switch (mode) {
+            case IO:
+                return IO_EXECUTOR;
+            case CPU:
+                return CPU_EXECUTOR;
+            default:
+                return DEFAULT_EXECUTOR;
+        }
+    }
+
+    /**
+     * Indique si le mode IO utilise des threads virtuels
+     * @return true si les threads virtuels sont disponibles
+     */
+    public static boolean isVirtualThreadsEnabled() {
+        return VirtualThreads.isAvailable();
+    }
+
     /**
      * Exécute une tâche de manière asynchrone et retourne un CompletableFuture
      * @param supplier La fonction à exécuter
      * @return CompletableFuture contenant le résultat
      */
     public static <T> CompletableFuture<T> run(Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier, DEFAULT_EXECUTOR);
+        return run(defaultMode, supplier);
     }
 
     /**
@@ -33,7 +168,82 @@ public class AsyncUtils {
      * @return CompletableFuture<Void>
      */
     public static CompletableFuture<Void> run(Runnable runnable) {
-        return CompletableFuture.runAsync(runnable, DEFAULT_EXECUTOR);
+        return run(defaultMode, runnable);
+    }
+
+    /**
+     * Exécute une tâche de manière asynchrone avec le mode donné
+     * @param mode Le mode d'exécution
+     * @param supplier La fonction à exécuter
+     * @return CompletableFuture contenant le résultat
+     */
+    public static <T> CompletableFuture<T> run(Mode mode, Supplier<T> supplier) {
+        return run(null, mode, supplier);
+    }
+
+    /**
+     * Exécute une tâche sans valeur de retour avec le mode donné
+     * @param mode Le mode d'exécution
+     * @param runnable La tâche à exécuter
+     * @return CompletableFuture<Void>
+     */
+    public static CompletableFuture<Void> run(Mode mode, Runnable runnable) {
+        return run(null, mode, runnable);
+    }
+
+    /**
+     * Exécute une tâche nommée, mesurée sous ce nom dans TaskMetrics
+     * @param name Le nom de la tâche
+     * @param supplier La fonction à exécuter
+     * @return CompletableFuture contenant le résultat
+     */
+    public static <T> CompletableFuture<T> run(String name, Supplier<T> supplier) {
+        return run(name, defaultMode, supplier);
+    }
+
+    public static CompletableFuture<Void> run(String name, Runnable runnable) {
+        return run(name, defaultMode, runnable);
+    }
+
+    /**
+     * Exécute une tâche nommée avec le mode donné
+     * @param name Le nom de la tâche, ou null pour la catégorie du mode
+     * @param mode Le mode d'exécution
+     * @param supplier La fonction à exécuter
+     * @return CompletableFuture contenant le résultat
+     */
+    public static <T> CompletableFuture<T> run(String name, Mode mode, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(TaskMetrics.wrap(category(name, mode), supplier), getExecutor(mode));
+    }
+
+    public static CompletableFuture<Void> run(String name, Mode mode, Runnable runnable) {
+        return CompletableFuture.runAsync(TaskMetrics.wrap(category(name, mode), runnable), getExecutor(mode));
+    }
+
+    /**
+     * Exécute une tâche bloquante (réseau, disque) hors du pool commun
+     * @param supplier La fonction à exécuter
+     * @return CompletableFuture contenant le résultat
+     */
+    public static <T> CompletableFuture<T> runIo(Supplier<T> supplier) {
+        return run(Mode.IO, supplier);
+    }
+
+    public static CompletableFuture<Void> runIo(Runnable runnable) {
+        return run(Mode.IO, runnable);
+    }
+
+    /**
+     * Exécute une tâche de calcul sur le pool borné au nombre de coeurs
+     * @param supplier La fonction à exécuter
+     * @return CompletableFuture contenant le résultat
+     */
+    public static <T> CompletableFuture<T> runCpu(Supplier<T> supplier) {
+        return run(Mode.CPU, supplier);
+    }
+
+    public static CompletableFuture<Void> runCpu(Runnable runnable) {
+        return run(Mode.CPU, runnable);
     }
 
     /**
@@ -44,15 +254,54 @@ public class AsyncUtils {
      * @return L'ID de la tâche programmée
      */
     public static long runLater(Runnable task, long delay, TimeUnit unit) {
+        return runLater(task, delay, unit, defaultMode);
+    }
+
+    /**
+     * Programme l'exécution d'une tâche après un délai, avec le mode donné
+     * @param task La tâche à exécuter
+     * @param delay Le délai avant exécution
+     * @param unit L'unité de temps du délai
+     * @param mode Le mode d'exécution de la tâche
+     * @return L'ID de la tâche programmée
+     */
+    public static long runLater(Runnable task, long delay, TimeUnit unit, Mode mode) {
+        return runLater(null, task, delay, unit, mode);
+    }
+
+    public static long runLater(String name, Runnable task, long delay, TimeUnit unit) {
+        return runLater(name, task, delay, unit, defaultMode);
+    }
+
+    /**
+     * Programme l'exécution d'une tâche nommée après un délai, avec le mode donné
+     * @param name Le nom de la tâche, ou null pour la catégorie du mode
+     * @param task La tâche à exécuter
+     * @param delay Le délai avant exécution
+     * @param unit L'unité de temps du délai
+     * @param mode Le mode d'exécution de la tâche
+     * @return L'ID de la tâche programmée
+     */
+    public static long runLater(String name, Runnable task, long delay, TimeUnit unit, Mode mode) {
+        Executor executor = meteredExecutor(name, mode);
+        if (timerBackend == TimerBackend.WHEEL) {
+            return timingWheel().schedule(task, executor, delay, unit);
+        }
         long id = ID_GENERATOR.incrementAndGet();
+        AtomicBoolean fired = new AtomicBoolean();
         ScheduledFuture<?> future = SCHEDULER.schedule(() -> {
             try {
-                DEFAULT_EXECUTOR.execute(task);
+                executor.execute(task);
             } finally {
+                fired.set(true);
                 TASKS.remove(id);
             }
         }, delay, unit);
         TASKS.put(id, future);
+        // La tâche a pu s'exécuter avant d'être enregistrée
+        if (fired.get()) {
+            TASKS.remove(id, future);
+        }
         return id;
     }
 
@@ -65,20 +314,86 @@ public class AsyncUtils {
      * @return L'ID de la tâche programmée
      */
     public static long runRepeating(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return runRepeating(task, initialDelay, period, unit, defaultMode);
+    }
+
+    /**
+     * Programme l'exécution répétée d'une tâche, avec le mode donné
+     * @param task La tâche à exécuter
+     * @param initialDelay Le délai initial avant la première exécution
+     * @param period La période entre les exécutions
+     * @param unit L'unité de temps
+     * @param mode Le mode d'exécution de la tâche
+     * @return L'ID de la tâche programmée
+     */
+    public static long runRepeating(Runnable task, long initialDelay, long period, TimeUnit unit, Mode mode) {
+        return runRepeating(null, task, initialDelay, period, unit, mode);
+    }
+
+    public static long runRepeating(String name, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return runRepeating(name, task, initialDelay, period, unit, defaultMode);
+    }
+
+    /**
+     * Programme l'exécution répétée d'une tâche nommée, avec le mode donné
+     * @param name Le nom de la tâche, ou null pour la catégorie du mode
+     * @param task La tâche à exécuter
+     * @param initialDelay Le délai initial avant la première exécution
+     * @param period La période entre les exécutions
+     * @param unit L'unité de temps
+     * @param mode Le mode d'exécution de la tâche
+     * @return L'ID de la tâche programmée
+     */
+    public static long runRepeating(String name, Runnable task, long initialDelay, long period, TimeUnit unit, Mode mode) {
+        Executor executor = meteredExecutor(name, mode);
+        if (timerBackend == TimerBackend.WHEEL) {
+            return timingWheel().scheduleRepeating(task, executor, initialDelay, period, unit);
+        }
         long id = ID_GENERATOR.incrementAndGet();
         ScheduledFuture<?> future = SCHEDULER.scheduleAtFixedRate(() -> {
-            DEFAULT_EXECUTOR.execute(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // L'executor est arrêté : l'exception met fin aux répétitions, et la tâche est retirée
+                TASKS.remove(id);
+                throw e;
+            }
         }, initialDelay, period, unit);
         TASKS.put(id, future);
+        // La tâche a pu être rejetée avant d'être enregistrée
+        if (future.isDone()) {
+            TASKS.remove(id, future);
+        }
         return id;
     }
 
+    private static String category(String name, Mode mode) {
+        return name != null ? name : DEFAULT_CATEGORIES[mode.ordinal()];
+    }
+
+    /**
+     * L'executor du mode, qui vérifie à chaque tâche reçue si TaskMetrics est activé
+     */
+    private static Executor meteredExecutor(String name, Mode mode) {
+        String category = category(name, mode);
+        ConcurrentMap<String, Executor> executors = METERED_EXECUTORS[mode.ordinal()];
+        Executor executor = executors.get(category);
+        if (executor == null) {
+            executor = executors.computeIfAbsent(category, key -> TaskMetrics.wrap(key, getExecutor(mode)));
+        }
+        return executor;
+    }
+
     /**
      * Arrête une tâche programmée
      * @param id L'ID de la tâche à arrêter
      * @return true si la tâche a été trouvée et annulée, false sinon
      */
     public static boolean stopTask(long id) {
+        if ((id & TimingWheel.ID_FLAG) != 0) {
+            TimingWheel wheel = timingWheel;
+            return wheel != null && wheel.cancel(id);
+        }
         ScheduledFuture<?> future = TASKS.remove(id);
         if (future != null) {
             return future.cancel(false);
@@ -92,6 +407,10 @@ public class AsyncUtils {
      * @return true si la tâche existe et n'est pas terminée
      */
     public static boolean isTaskActive(long id) {
+        if ((id & TimingWheel.ID_FLAG) != 0) {
+            TimingWheel wheel = timingWheel;
+            return wheel != null && wheel.isActive(id);
+        }
         ScheduledFuture<?> future = TASKS.get(id);
         return future != null && !future.isDone();
     }
@@ -101,7 +420,8 @@ public class AsyncUtils {
      * @return Le nombre de tâches actives
      */
     public static int getActiveTaskCount() {
-        return TASKS.size();
+        TimingWheel wheel = timingWheel;
+        return TASKS.size() + (wheel != null ? wheel.size() : 0);
     }
 
     /**
@@ -110,7 +430,13 @@ public class AsyncUtils {
     public static void shutdown() {
         TASKS.values().forEach(future -> future.cancel(false));
         TASKS.clear();
+        TimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            wheel.shutdown();
+        }
 
+        IO_EXECUTOR.shutdown();
+        CPU_EXECUTOR.shutdown();
         SCHEDULER.shutdown();
         try {
             if (!SCHEDULER.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -131,7 +457,13 @@ public class AsyncUtils {
     public static boolean shutdown(long timeout, TimeUnit unit) {
         TASKS.values().forEach(future -> future.cancel(false));
         TASKS.clear();
+        TimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            wheel.shutdown();
+        }
 
+        IO_EXECUTOR.shutdown();
+        CPU_EXECUTOR.shutdown();
         SCHEDULER.shutdown();
         try {
             return SCHEDULER.awaitTermination(timeout, unit);
@@ -0,0 +1,77 @@
+package io.neskdev.api.utils;
+
+/**
+ * Approximate access counts of a cache's keys, for TinyLFU admission.
+ * <p>
+ * A count-min sketch of 4-bit counters, 16 per long: each key has one counter in each of 4 rows, and its
+ * frequency is the smallest of them, so collisions can only overestimate it. Every {@code 10 × capacity}
+ * increments, all counters are halved, so that keys which were popular long ago fade out. Not thread-safe.
+ */
+public final class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {0x97CB3127F9A32A19L, 0xC2B2AE3D27D4EB4FL, 0x9E3779B97F4A7C15L, 0xD6E8FEB86659FD93L};
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param capacity the number of keys the cache holds
+     */
+    public FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = Math.max(10 * capacity, 10);
+    }
+
+    /**
+     * @return the estimated number of accesses of the key since it was last halved, at most 15
+     */
+    public int frequency(long hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long spread = spread(hash, row);
+            int counter = (int) (this.table[(int) spread & this.mask] >>> shift(spread, row)) & 0xF;
+            frequency = Math.min(frequency, counter);
+        }
+        return frequency;
+    }
+
+    public void increment(long hash) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long spread = spread(hash, row);
+            int index = (int) spread & this.mask;
+            int shift = shift(spread, row);
+            if (((this.table[index] >>> shift) & 0xF) != 0xF) {
+                this.table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++this.additions >= this.sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+        this.additions >>>= 1;
+    }
+
+    private static long spread(long hash, int row) {
+        long spread = (hash + SEEDS[row]) * SEEDS[row];
+        return spread ^ (spread >>> 29);
+    }
+
+    /**
+     * Each row uses its own group of 4 counters within a long, picked by high bits of the hash.
+     */
+    private static int shift(long spread, int row) {
+        return ((row << 2) + (int) (spread >>> 62)) << 2;
+    }
+}
@@ -4,41 +4,70 @@ import java.util.concurrent.TimeUnit;
 
 public class Scheduler {
 
+    private static final String SYNC_CATEGORY = "scheduler-sync";
+    private static final String ASYNC_CATEGORY = "scheduler-async";
+
     private static Implementation implementation;
 
     public static void setImplementation(Implementation implementation) {
         Scheduler.implementation = implementation;
     }
 
+    /**
+     * @return whether an implementation is registered; without one, every task is silently dropped
+     */
+    public static boolean hasImplementation() {
+        return implementation != null;
+    }
+
     public static void runLater(Runnable task, long delay, TimeUnit unit) {
+        runLater(SYNC_CATEGORY, task, delay, unit);
+    }
+
+    /**
+     * Same as {@link #runLater(Runnable, long, TimeUnit)}, measured under the given name in {@link TaskMetrics}.
+     */
+    public static void runLater(String name, Runnable task, long delay, TimeUnit unit) {
         if (implementation != null) {
-            implementation.runLater(task, delay, unit);
+            implementation.runLater(TaskMetrics.wrapDelayed(name, task, delay, unit), delay, unit);
         }
     }
 
     public static void runAsync(Runnable task) {
         if (implementation != null) {
-            implementation.runAsync(task);
+            implementation.runAsync(TaskMetrics.wrap(ASYNC_CATEGORY, task));
         }
     }
 
     public static Task runRepeating(Runnable task, long initialDelay, long period, TimeUnit unit) {
-        return implementation != null ? implementation.runRepeating(task, initialDelay, period, unit) : null;
+        return runRepeating(SYNC_CATEGORY, task, initialDelay, period, unit);
+    }
+
+    public static Task runRepeating(String name, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return implementation != null
+                ? implementation.runRepeating(TaskMetrics.wrapRepeating(name, task, initialDelay, period, unit), initialDelay, period, unit)
+                : null;
     }
 
     public static Task runRepeatingAsync(Runnable task, long initialDelay, long period, TimeUnit unit) {
-        return implementation != null ? implementation.runRepeatingAsync(task, initialDelay, period, unit) : null;
+        return implementation != null
+                ? implementation.runRepeatingAsync(TaskMetrics.wrapRepeating(ASYNC_CATEGORY, task, initialDelay, period, unit), initialDelay, period, unit)
+                : null;
     }
 
     public static void runNow(Runnable task) {
+        runNow(SYNC_CATEGORY, task);
+    }
+
+    public static void runNow(String name, Runnable task) {
         if (implementation != null) {
-            implementation.runNow(task);
+            implementation.runNow(TaskMetrics.wrap(name, task));
         }
     }
 
     public static void runNowAsync(Runnable task) {
         if (implementation != null) {
-            implementation.runNowAsync(task);
+            implementation.runNowAsync(TaskMetrics.wrap(ASYNC_CATEGORY, task));
         }
     }
 
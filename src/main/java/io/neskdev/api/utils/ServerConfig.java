@@ -0,0 +1,328 @@
+package io.neskdev.api.utils;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Properties file read once and kept in memory, such as {@code server.properties}.
+ * <p>
+ * The values live in an immutable {@link Snapshot}, so {@link #get()} is a single volatile read. Missing
+ * defaults are written into the file by {@link #load()} only, at startup. After {@link #watch()}, a daemon
+ * thread reloads the file through a {@link WatchService} whenever it changes, publishes a new snapshot and
+ * notifies the listeners; a file that cannot be read keeps the previous snapshot.
+ */
+public class ServerConfig implements AutoCloseable {
+
+    public static final String SERVER_NAME = "server-name";
+    public static final String DEFAULT_SERVER_NAME = "Global";
+
+    /**
+     * Server name used when the file does not exist.
+     */
+    public static final String FALLBACK_SERVER_NAME = "global";
+
+    private static final long RELOAD_DELAY_MILLIS = 100;
+
+    private static volatile ServerConfig defaultConfig;
+
+    @Getter
+    private final Path file;
+    private final Map<String, String> defaults = new LinkedHashMap<>();
+    private final List<BiConsumer<Snapshot, Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+    private WatchService watchService;
+    private Thread watcher;
+
+    public ServerConfig(Path file) {
+        this.file = file;
+        this.snapshot = new Snapshot(Collections.emptyMap(), 0);
+    }
+
+    /**
+     * @return the configuration of {@code server.properties}, loaded with its defaults on first use. It is not
+     * watched until {@link #watch()} is called, see {@link ServerInfo#watch()}
+     */
+    public static ServerConfig getDefault() {
+        ServerConfig config = defaultConfig;
+        if (config == null) {
+            synchronized (ServerConfig.class) {
+                config = defaultConfig;
+                if (config == null) {
+                    config = new ServerConfig(Paths.get("server.properties"))
+                            .setDefault(SERVER_NAME, DEFAULT_SERVER_NAME);
+                    config.load();
+                    defaultConfig = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Declares a value written into the file by {@link #load()} if its key is missing.
+     */
+    public synchronized ServerConfig setDefault(String key, String value) {
+        this.defaults.put(key, value);
+        return this;
+    }
+
+    /**
+     * Called with the previous and the new snapshot after every reload that changed a value, on the watcher
+     * thread.
+     */
+    public ServerConfig addListener(BiConsumer<Snapshot, Snapshot> listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    public void removeListener(BiConsumer<Snapshot, Snapshot> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * @return the current values
+     */
+    public Snapshot get() {
+        return this.snapshot;
+    }
+
+    /**
+     * Reads the file and writes the missing defaults into it. Meant to be called once, at startup; a missing
+     * file is not created.
+     */
+    public synchronized Snapshot load() {
+        Properties properties;
+        try {
+            properties = read();
+        } catch (NoSuchFileException e) {
+            return this.snapshot;
+        } catch (IOException e) {
+            System.out.println("[NeskAPI] Could not read " + this.file + ": " + e.getMessage());
+            return this.snapshot;
+        }
+
+        boolean changed = false;
+        for (Map.Entry<String, String> entry : this.defaults.entrySet()) {
+            if (!properties.containsKey(entry.getKey())) {
+                System.out.println("Clé '" + entry.getKey() + "' manquante dans " + this.file.getFileName()
+                        + ". Utilisation de la valeur par défaut : " + entry.getValue());
+                properties.setProperty(entry.getKey(), entry.getValue());
+                changed = true;
+            }
+        }
+        if (changed) {
+            try (OutputStream output = Files.newOutputStream(this.file)) {
+                properties.store(output, null);
+                System.out.println("Valeurs par défaut ajoutées au fichier " + this.file.getFileName() + ".");
+            } catch (IOException e) {
+                System.out.println("[NeskAPI] Could not write the defaults of " + this.file + ": " + e.getMessage());
+            }
+        }
+
+        publish(properties);
+        return this.snapshot;
+    }
+
+    /**
+     * Reads the file again, without writing anything, and notifies the listeners if a value changed.
+     */
+    public synchronized Snapshot reload() {
+        try {
+            publish(read());
+        } catch (NoSuchFileException e) {
+            // Being replaced, the next event reloads it
+        } catch (IOException e) {
+            System.out.println("[NeskAPI] Could not reload " + this.file + ": " + e.getMessage());
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * Starts reloading the file in the background whenever it changes.
+     */
+    public synchronized ServerConfig watch() {
+        if (this.watcher != null) {
+            return this;
+        }
+        Path directory = this.file.toAbsolutePath().getParent();
+        try {
+            this.watchService = directory.getFileSystem().newWatchService();
+            directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.out.println("[NeskAPI] Could not watch " + this.file + ": " + e.getMessage());
+            return this;
+        }
+
+        WatchService watchService = this.watchService;
+        this.watcher = new Thread(() -> runWatcher(watchService), "NeskAPI-ConfigWatcher-" + this.file.getFileName());
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+        return this;
+    }
+
+    public boolean isWatching() {
+        return this.watcher != null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.watcher == null) {
+            return;
+        }
+        try {
+            this.watchService.close();
+        } catch (IOException ignored) {
+        }
+        this.watcher.interrupt();
+        this.watcher = null;
+        this.watchService = null;
+    }
+
+    private void runWatcher(WatchService watchService) {
+        Path name = this.file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean modified = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    modified |= name.equals(event.context()) || event.kind() == StandardWatchEventKinds.OVERFLOW;
+                }
+                key.reset();
+                if (!modified) {
+                    continue;
+                }
+
+                // Editors often write a file in several steps, wait for the last one
+                Thread.sleep(RELOAD_DELAY_MILLIS);
+                WatchKey pending;
+                while ((pending = watchService.poll(RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private Properties read() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(this.file)) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    private void publish(Properties properties) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+
+        Snapshot previous = this.snapshot;
+        if (previous.getVersion() > 0 && previous.values.equals(values)) {
+            return;
+        }
+        Snapshot current = new Snapshot(Collections.unmodifiableMap(values), this.version.incrementAndGet());
+        this.snapshot = current;
+
+        for (BiConsumer<Snapshot, Snapshot> listener : this.listeners) {
+            try {
+                listener.accept(previous, current);
+            } catch (Throwable t) {
+                System.out.println("[NeskAPI] Config listener failed for " + this.file + ": " + t);
+            }
+        }
+    }
+
+    /**
+     * Values of the file at a point in time. Typed getters return the given default if the key is missing or
+     * cannot be parsed.
+     */
+    public static final class Snapshot {
+
+        private final Map<String, String> values;
+        /**
+         * 0 until the file was read, then incremented on every change.
+         */
+        @Getter
+        private final long version;
+        @Getter
+        private final String serverName;
+
+        private Snapshot(Map<String, String> values, long version) {
+            this.values = values;
+            this.version = version;
+            this.serverName = values.getOrDefault(SERVER_NAME, FALLBACK_SERVER_NAME);
+        }
+
+        public Map<String, String> asMap() {
+            return this.values;
+        }
+
+        public boolean contains(String key) {
+            return this.values.containsKey(key);
+        }
+
+        public String getString(String key, String defaultValue) {
+            return this.values.getOrDefault(key, defaultValue);
+        }
+
+        public int getInt(String key, int defaultValue) {
+            String value = this.values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        public long getLong(String key, long defaultValue) {
+            String value = this.values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        public boolean getBoolean(String key, boolean defaultValue) {
+            String value = this.values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            value = value.trim();
+            if (value.equalsIgnoreCase("true")) {
+                return true;
+            } else if (value.equalsIgnoreCase("false")) {
+                return false;
+            }
+            return defaultValue;
+        }
+
+        /**
+         * @return true if the value of {@code key} differs in {@code other}
+         */
+        public boolean changed(Snapshot other, String key) {
+            return !Objects.equals(this.values.get(key), other.values.get(key));
+        }
+    }
+}
@@ -1,46 +1,41 @@
 package io.neskdev.api.utils;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.util.Properties;
-
 public class ServerInfo {
 
-    private static String serverName = "global";
-
+    /**
+     * Reads server.properties again. Not needed once {@link #watch()} was called.
+     */
     public static void loadServerName() {
-        File configFile = new File("server.properties");
-
-        try (FileInputStream fis = new FileInputStream(configFile)) {
-            Properties properties = new Properties();
-            properties.load(fis);
+        ServerConfig.getDefault().reload();
+    }
 
-            if (properties.containsKey("server-name")) {
-                serverName = properties.getProperty("server-name");
-            } else {
-                System.out.println("Clé 'server-name' manquante dans server.properties. Utilisation de la valeur par défaut : Global");
-                serverName = "Global";
-                properties.setProperty("server-name", serverName);
+    /**
+     * Reloads server.properties in the background whenever it changes, until {@link #stopWatching()}.
+     * Meant to be called once, at startup; the returned config stops watching when closed, so it can be
+     * registered as a service of the {@link io.neskdev.api.Bootstrap}:
+     * <pre>{@code
+     * bootstrap.register("server-config", ServerInfo::watch);
+     * }</pre>
+     *
+     * @return the watched configuration
+     */
+    public static ServerConfig watch() {
+        return ServerConfig.getDefault().watch();
+    }
 
-                try (FileOutputStream fos = new FileOutputStream(configFile)) {
-                    properties.store(fos, null);
-                    System.out.println("Clé 'server-name' ajoutée au fichier avec la valeur par défaut.");
-                }
-            }
-        } catch (IOException e) {
-            e.getMessage();
-        }
+    /**
+     * Stops the thread started by {@link #watch()}, if any.
+     */
+    public static void stopWatching() {
+        ServerConfig.getDefault().close();
     }
 
     /**
-     * Get the server name from the server.properties file.
+     * Get the server name from the server.properties file, as of its last change.
      * @return
      */
 
     public static String getServerName() {
-        loadServerName();
-        return serverName;
+        return ServerConfig.getDefault().get().getServerName();
     }
-}
\ No newline at end of file
+}
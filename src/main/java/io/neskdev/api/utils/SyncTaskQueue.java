@@ -0,0 +1,190 @@
+package io.neskdev.api.utils;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Main-thread task queue with a time budget per tick, layered over {@link Scheduler}.
+ * <p>
+ * Tasks can be submitted from any thread. Every server tick, {@link #tick()} runs them from the highest
+ * priority lane down until the budget is used up; the rest waits for the next tick. At least one task runs
+ * per tick, so a task longer than the budget cannot block the queue. Tasks submitted with a key are
+ * coalesced: while a keyed task is pending, submitting the same key replaces it instead of queueing it again,
+ * so "refresh the tab list of player X" runs once however many times it was requested.
+ */
+public class SyncTaskQueue implements AutoCloseable {
+
+    private static final long TICK_MILLIS = 50;
+    private static final String CATEGORY = "sync-queue";
+
+    private final long budgetNanos;
+    private final Queue<Entry>[] lanes;
+    private final Map<Object, Entry> pendingByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong deferredTicks = new AtomicLong();
+
+    private volatile long lastTickNanos;
+    private volatile Scheduler.Task task;
+
+    @SuppressWarnings("unchecked")
+    public SyncTaskQueue(long budget, TimeUnit unit) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        this.budgetNanos = unit.toNanos(budget);
+        this.lanes = new Queue[Priority.values().length];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Drains the queue on the main thread every tick, through {@link Scheduler#runRepeating}.
+     *
+     * @throws IllegalStateException if no {@link Scheduler} implementation is registered, since the queue would
+     * never be drained
+     */
+    public SyncTaskQueue start() {
+        if (this.task == null) {
+            Scheduler.Task scheduled = Scheduler.runRepeating(CATEGORY + "-tick", this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            if (scheduled == null) {
+                throw new IllegalStateException("No Scheduler implementation registered, see Scheduler.setImplementation");
+            }
+            this.task = scheduled;
+        }
+        return this;
+    }
+
+    public void submit(Runnable task) {
+        submit(Priority.NORMAL, task);
+    }
+
+    public void submit(Priority priority, Runnable task) {
+        this.pending.incrementAndGet();
+        this.lanes[priority.ordinal()].add(new Entry(null, TaskMetrics.wrap(CATEGORY, task)));
+    }
+
+    /**
+     * Submits a task that replaces the pending task with the same key, if any. The replaced task keeps its
+     * place and priority in the queue.
+     */
+    public void submit(Priority priority, Object key, Runnable task) {
+        this.pendingByKey.compute(key, (ignored, entry) -> {
+            if (entry != null) {
+                entry.task = TaskMetrics.wrap(CATEGORY, task);
+                this.coalesced.incrementAndGet();
+                return entry;
+            }
+            Entry created = new Entry(key, TaskMetrics.wrap(CATEGORY, task));
+            this.pending.incrementAndGet();
+            this.lanes[priority.ordinal()].add(created);
+            return created;
+        });
+    }
+
+    public void submit(Object key, Runnable task) {
+        submit(Priority.NORMAL, key, task);
+    }
+
+    /**
+     * Runs queued tasks until the budget is used up. Must be called from the main thread.
+     *
+     * @return the number of tasks that ran
+     */
+    public int tick() {
+        long start = System.nanoTime();
+        long deadline = start + this.budgetNanos;
+        int ran = 0;
+
+        for (Queue<Entry> lane : this.lanes) {
+            Entry entry;
+            while ((ran == 0 || System.nanoTime() < deadline) && (entry = lane.poll()) != null) {
+                if (entry.key != null) {
+                    // Removed first, so that a submission made while the task runs is queued for later
+                    this.pendingByKey.remove(entry.key, entry);
+                }
+                this.pending.decrementAndGet();
+                ran++;
+
+                try {
+                    entry.task.run();
+                } catch (Throwable throwable) {
+                    System.out.println("[NeskAPI] A sync task failed: " + throwable);
+                    throwable.printStackTrace();
+                }
+            }
+        }
+
+        this.executed.addAndGet(ran);
+        this.lastTickNanos = System.nanoTime() - start;
+        if (this.pending.get() > 0) {
+            this.deferredTicks.incrementAndGet();
+        }
+        return ran;
+    }
+
+    public int getPendingCount() {
+        return this.pending.get();
+    }
+
+    public long getExecutedCount() {
+        return this.executed.get();
+    }
+
+    /**
+     * @return the number of keyed submissions merged into an already pending task
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.get();
+    }
+
+    /**
+     * @return the number of ticks that ended with tasks left for the next tick
+     */
+    public long getDeferredTickCount() {
+        return this.deferredTicks.get();
+    }
+
+    public long getLastTickNanos() {
+        return this.lastTickNanos;
+    }
+
+    public long getBudgetNanos() {
+        return this.budgetNanos;
+    }
+
+    /**
+     * Stops draining the queue. Pending tasks are kept and can still be run through {@link #tick()}.
+     */
+    @Override
+    public void close() {
+        Scheduler.Task task = this.task;
+        this.task = null;
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private static final class Entry {
+        private final Object key;
+        private volatile Runnable task;
+
+        private Entry(Object key, Runnable task) {
+            this.key = key;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package io.neskdev.api.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Queue delay and execution time of the tasks run through {@link AsyncUtils}, {@link Scheduler} and
+ * {@link SyncTaskQueue}, per named task or category.
+ * <p>
+ * Disabled by default. While disabled, {@link #wrap(String, Runnable)} returns the task itself after a single
+ * volatile read, so the instrumentation can stay in place. Once enabled, every run is recorded into a
+ * {@link LatencyHistogram}, and a watchdog thread reports tasks that run longer than the slow task threshold,
+ * with the stack they are stuck in.
+ */
+public final class TaskMetrics {
+
+    private static final Map<String, Category> CATEGORIES = new ConcurrentHashMap<>();
+    private static final Set<Running> RUNNING = ConcurrentHashMap.newKeySet();
+
+    private static volatile boolean enabled;
+    private static volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(500);
+    private static volatile Consumer<SlowTask> slowTaskListener = TaskMetrics::logSlowTask;
+    private static Thread watchdog;
+
+    private TaskMetrics() {
+        throw new UnsupportedOperationException("TaskMetrics is a utility class and cannot be instantiated.");
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static synchronized void setEnabled(boolean enabled) {
+        TaskMetrics.enabled = enabled;
+        if (enabled && watchdog == null) {
+            watchdog = new Thread(TaskMetrics::watch, "NeskAPI-TaskWatchdog");
+            watchdog.setDaemon(true);
+            watchdog.start();
+        }
+    }
+
+    /**
+     * Tasks running longer than this are reported to the slow task listener while they still run.
+     */
+    public static void setSlowTaskThreshold(long threshold, TimeUnit unit) {
+        slowThresholdNanos = unit.toNanos(threshold);
+    }
+
+    /**
+     * Replaces the default listener, which prints the slow task and its stack.
+     */
+    public static void setSlowTaskListener(Consumer<SlowTask> listener) {
+        slowTaskListener = listener;
+    }
+
+    /**
+     * Wraps a task so that its queue delay, counted from now, and its execution time are recorded.
+     *
+     * @return the task itself while metrics are disabled
+     */
+    public static Runnable wrap(String category, Runnable task) {
+        if (!enabled) {
+            return task;
+        }
+        Category metrics = category(category);
+        long submittedAt = System.nanoTime();
+        return () -> {
+            Running running = begin(metrics, submittedAt);
+            try {
+                task.run();
+            } finally {
+                end(running);
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrap(String category, Supplier<T> supplier) {
+        if (!enabled) {
+            return supplier;
+        }
+        Category metrics = category(category);
+        long submittedAt = System.nanoTime();
+        return () -> {
+            Running running = begin(metrics, submittedAt);
+            try {
+                return supplier.get();
+            } finally {
+                end(running);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task that is meant to run after the given delay, so that only its lateness counts as queue delay.
+     * Whether metrics are enabled is checked when the task runs, not when it is scheduled.
+     */
+    public static Runnable wrapDelayed(String category, Runnable task, long delay, TimeUnit unit) {
+        long expectedAt = System.nanoTime() + unit.toNanos(delay);
+        return () -> {
+            if (!enabled) {
+                task.run();
+                return;
+            }
+            Running running = begin(category(category), expectedAt);
+            try {
+                task.run();
+            } finally {
+                end(running);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task run at a fixed rate, so that the lateness of every run counts as queue delay. Whether metrics
+     * are enabled is checked on every run, so that tasks scheduled before {@link #setEnabled(boolean)} follow it.
+     */
+    public static Runnable wrapRepeating(String category, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        long periodNanos = unit.toNanos(period);
+        long[] expectedAt = {System.nanoTime() + unit.toNanos(initialDelay)};
+        return () -> {
+            long due = expectedAt[0];
+            long now = System.nanoTime();
+            expectedAt[0] = due + periodNanos;
+            if (expectedAt[0] < now) {
+                // More than a period late: the schedulers do not catch up, the next run is due a period from now
+                expectedAt[0] = now + periodNanos;
+            }
+            if (!enabled) {
+                task.run();
+                return;
+            }
+
+            Running running = begin(category(category), due);
+            try {
+                task.run();
+            } finally {
+                end(running);
+            }
+        };
+    }
+
+    /**
+     * Wraps an executor so that every task handed to it is recorded, each from its own hand-off. Suited to
+     * repeating tasks, whose queue delay must be counted per run.
+     */
+    public static Executor wrap(String category, Executor executor) {
+        return task -> executor.execute(wrap(category, task));
+    }
+
+    /**
+     * @return the metrics of every category recorded so far, by name
+     */
+    public static Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        CATEGORIES.forEach((name, category) -> snapshots.put(name, category.snapshot()));
+        return snapshots;
+    }
+
+    public static Snapshot snapshot(String category) {
+        Category metrics = CATEGORIES.get(category);
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    public static void reset() {
+        CATEGORIES.clear();
+    }
+
+    private static Category category(String name) {
+        Category category = CATEGORIES.get(name);
+        return category != null ? category : CATEGORIES.computeIfAbsent(name, Category::new);
+    }
+
+    private static Running begin(Category category, long submittedAt) {
+        long startedAt = System.nanoTime();
+        category.queueDelay.record(startedAt - submittedAt);
+        Running running = new Running(category, Thread.currentThread(), startedAt);
+        RUNNING.add(running);
+        return running;
+    }
+
+    private static void end(Running running) {
+        RUNNING.remove(running);
+        long elapsed = System.nanoTime() - running.startedAt;
+        running.category.executionTime.record(elapsed);
+        if (elapsed >= slowThresholdNanos) {
+            running.category.slowCount.increment();
+        }
+    }
+
+    private static void watch() {
+        while (true) {
+            long threshold = slowThresholdNanos;
+            try {
+                Thread.sleep(Math.max(10, TimeUnit.NANOSECONDS.toMillis(threshold) / 2));
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            for (Running running : RUNNING) {
+                long elapsed = now - running.startedAt;
+                if (elapsed < threshold || running.reported) {
+                    continue;
+                }
+                running.reported = true;
+
+                StackTraceElement[] stack = running.thread.getStackTrace();
+                // The task may have ended while the stack was captured
+                if (!RUNNING.contains(running)) {
+                    continue;
+                }
+                try {
+                    slowTaskListener.accept(new SlowTask(running.category.name, running.thread.getName(), elapsed, stack));
+                } catch (Throwable throwable) {
+                    System.out.println("[NeskAPI] The slow task listener failed: " + throwable);
+                }
+            }
+        }
+    }
+
+    private static void logSlowTask(SlowTask task) {
+        System.out.println("[NeskAPI] Slow task '" + task.getCategory() + "' on " + task.getThreadName()
+                + ", running for " + TimeUnit.NANOSECONDS.toMillis(task.getElapsedNanos()) + " ms:");
+        for (StackTraceElement element : task.getStack()) {
+            System.out.println("\tat " + element);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SlowTask {
+        private final String category;
+        private final String threadName;
+        private final long elapsedNanos;
+        private final StackTraceElement[] stack;
+    }
+
+    /**
+     * Percentiles are in nanoseconds.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final String category;
+        private final long count;
+        private final long slowCount;
+        private final long queueDelayP50;
+        private final long queueDelayP99;
+        private final long queueDelayMax;
+        private final long executionP50;
+        private final long executionP90;
+        private final long executionP99;
+        private final long executionMax;
+        private final double executionMean;
+    }
+
+    private static final class Category {
+        private final String name;
+        private final LatencyHistogram queueDelay = new LatencyHistogram();
+        private final LatencyHistogram executionTime = new LatencyHistogram();
+        private final LongAdder slowCount = new LongAdder();
+
+        private Category(String name) {
+            this.name = name;
+        }
+
+        private Snapshot snapshot() {
+            return new Snapshot(this.name, this.executionTime.getCount(), this.slowCount.sum(),
+                    this.queueDelay.getPercentile(50), this.queueDelay.getPercentile(99), this.queueDelay.getMax(),
+                    this.executionTime.getPercentile(50), this.executionTime.getPercentile(90),
+                    this.executionTime.getPercentile(99), this.executionTime.getMax(), this.executionTime.getMean());
+        }
+    }
+
+    private static final class Running {
+        private final Category category;
+        private final Thread thread;
+        private final long startedAt;
+        private volatile boolean reported;
+
+        private Running(Category category, Thread thread, long startedAt) {
+            this.category = category;
+            this.thread = thread;
+            this.startedAt = startedAt;
+        }
+    }
+}
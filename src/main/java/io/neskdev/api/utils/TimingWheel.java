@@ -0,0 +1,327 @@
+package io.neskdev.api.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for large numbers of short timers.
+ * <p>
+ * Timers live in a slab of parallel arrays and are chained into one of {@code wheelSize} buckets by their
+ * deadline tick, so scheduling and cancelling are {@code O(1)} and allocate nothing once the slab has grown.
+ * Timer ids are plain longs made of the slab index and a generation, so a stale id never cancels a newer
+ * timer. A single daemon thread advances the wheel every tick and hands expired tasks to their executor;
+ * deadlines are therefore rounded up to the tick resolution.
+ */
+public final class TimingWheel {
+
+    /**
+     * Set on every id returned by a wheel, so that they never collide with other task ids.
+     */
+    public static final long ID_FLAG = 1L << 62;
+
+    private static final int NONE = -1;
+    private static final long GENERATION_MASK = (1L << 30) - 1;
+
+    private final String name;
+    private final long tickNanos;
+    private final int mask;
+    private final int[] heads;
+    private final Object lock = new Object();
+
+    // Slab of timers, indexed by slot
+    private Runnable[] tasks;
+    private Executor[] executors;
+    private long[] deadlines;
+    private long[] periods;
+    private int[] generations;
+    private int[] next;
+    private int[] prev;
+    private int[] freeSlots;
+    private int freeCount;
+    private int allocated;
+    private int size;
+
+    private long startNanos;
+    private long processedTick;
+    private Thread worker;
+    private volatile boolean stopped;
+
+    public TimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickDuration and wheelSize must be positive");
+        }
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int buckets = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = buckets - 1;
+        this.heads = new int[buckets];
+        Arrays.fill(this.heads, NONE);
+        grow(64);
+    }
+
+    /**
+     * Runs a task once after the given delay.
+     *
+     * @return the id of the timer
+     */
+    public long schedule(Runnable task, Executor executor, long delay, TimeUnit unit) {
+        return add(task, executor, unit.toNanos(delay), 0);
+    }
+
+    /**
+     * Runs a task every {@code period}, at a fixed rate, after the initial delay.
+     *
+     * @return the id of the timer
+     */
+    public long scheduleRepeating(Runnable task, Executor executor, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        return add(task, executor, unit.toNanos(initialDelay), Math.max(1, ceilTicks(unit.toNanos(period))));
+    }
+
+    /**
+     * @return true if the timer was pending and is now cancelled
+     */
+    public boolean cancel(long id) {
+        synchronized (this.lock) {
+            int slot = slotOf(id);
+            if (slot == NONE) {
+                return false;
+            }
+            unlink(slot);
+            free(slot);
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the timer is still pending, which includes repeating timers between two runs
+     */
+    public boolean isActive(long id) {
+        synchronized (this.lock) {
+            return slotOf(id) != NONE;
+        }
+    }
+
+    /**
+     * @return the number of pending timers
+     */
+    public int size() {
+        synchronized (this.lock) {
+            return this.size;
+        }
+    }
+
+    public long getTickNanos() {
+        return this.tickNanos;
+    }
+
+    public boolean isStarted() {
+        synchronized (this.lock) {
+            return this.worker != null;
+        }
+    }
+
+    /**
+     * Stops the worker thread and drops every pending timer.
+     */
+    public void shutdown() {
+        Thread worker;
+        synchronized (this.lock) {
+            this.stopped = true;
+            worker = this.worker;
+            Arrays.fill(this.heads, NONE);
+            for (int slot = 0; slot < this.allocated; slot++) {
+                if (this.tasks[slot] != null) {
+                    free(slot);
+                }
+            }
+        }
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private long add(Runnable task, Executor executor, long delayNanos, long periodTicks) {
+        if (task == null || executor == null) {
+            throw new NullPointerException("task and executor must not be null");
+        }
+
+        synchronized (this.lock) {
+            if (this.stopped) {
+                throw new RejectedExecutionException("TimingWheel " + this.name + " has been shut down");
+            }
+            if (this.worker == null) {
+                start();
+            }
+
+            int slot = allocate();
+            this.tasks[slot] = task;
+            this.executors[slot] = executor;
+            this.periods[slot] = periodTicks;
+            long elapsed = System.nanoTime() - this.startNanos;
+            link(slot, ceilTicks(elapsed + Math.max(0, delayNanos)));
+            return ID_FLAG | (this.generations[slot] & GENERATION_MASK) << 32 | slot;
+        }
+    }
+
+    private void start() {
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::work, this.name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private void work() {
+        Runnable[] dueTasks = new Runnable[16];
+        Executor[] dueExecutors = new Executor[16];
+
+        while (!this.stopped) {
+            long tick;
+            synchronized (this.lock) {
+                tick = this.processedTick + 1;
+            }
+
+            long wait = this.startNanos + tick * this.tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            int due = 0;
+            synchronized (this.lock) {
+                if (this.stopped) {
+                    return;
+                }
+                this.processedTick = tick;
+
+                int bucket = (int) (tick & this.mask);
+                for (int slot = this.heads[bucket]; slot != NONE; ) {
+                    int following = this.next[slot];
+                    if (this.deadlines[slot] <= tick) {
+                        if (due == dueTasks.length) {
+                            dueTasks = Arrays.copyOf(dueTasks, due * 2);
+                            dueExecutors = Arrays.copyOf(dueExecutors, due * 2);
+                        }
+                        dueTasks[due] = this.tasks[slot];
+                        dueExecutors[due] = this.executors[slot];
+                        due++;
+
+                        unlink(slot);
+                        if (this.periods[slot] > 0) {
+                            link(slot, this.deadlines[slot] + this.periods[slot]);
+                        } else {
+                            free(slot);
+                        }
+                    }
+                    slot = following;
+                }
+            }
+
+            for (int i = 0; i < due; i++) {
+                try {
+                    dueExecutors[i].execute(dueTasks[i]);
+                } catch (RejectedExecutionException e) {
+                    System.out.println("[NeskAPI] A timer task was rejected by its executor: " + e.getMessage());
+                }
+                dueTasks[i] = null;
+                dueExecutors[i] = null;
+            }
+        }
+    }
+
+    private int slotOf(long id) {
+        if ((id & ID_FLAG) == 0) {
+            return NONE;
+        }
+        int slot = (int) id;
+        if (slot < 0 || slot >= this.allocated || this.tasks[slot] == null
+                || (this.generations[slot] & GENERATION_MASK) != (id >>> 32 & GENERATION_MASK)) {
+            return NONE;
+        }
+        return slot;
+    }
+
+    private void link(int slot, long deadline) {
+        // Never lands on a tick the worker has already processed
+        deadline = Math.max(deadline, this.processedTick + 1);
+        this.deadlines[slot] = deadline;
+
+        int bucket = (int) (deadline & this.mask);
+        int head = this.heads[bucket];
+        this.next[slot] = head;
+        this.prev[slot] = NONE;
+        if (head != NONE) {
+            this.prev[head] = slot;
+        }
+        this.heads[bucket] = slot;
+    }
+
+    private void unlink(int slot) {
+        int before = this.prev[slot];
+        int after = this.next[slot];
+        if (before != NONE) {
+            this.next[before] = after;
+        } else {
+            this.heads[(int) (this.deadlines[slot] & this.mask)] = after;
+        }
+        if (after != NONE) {
+            this.prev[after] = before;
+        }
+    }
+
+    private int allocate() {
+        if (this.freeCount == 0) {
+            int from = this.allocated;
+            grow(from * 2);
+            // Hands out low slots first
+            for (int slot = this.allocated - 1; slot >= from; slot--) {
+                this.freeSlots[this.freeCount++] = slot;
+            }
+        }
+        this.size++;
+        return this.freeSlots[--this.freeCount];
+    }
+
+    private void free(int slot) {
+        this.tasks[slot] = null;
+        this.executors[slot] = null;
+        this.generations[slot]++;
+        this.freeSlots[this.freeCount++] = slot;
+        this.size--;
+    }
+
+    private void grow(int capacity) {
+        if (this.tasks == null) {
+            this.tasks = new Runnable[capacity];
+            this.executors = new Executor[capacity];
+            this.deadlines = new long[capacity];
+            this.periods = new long[capacity];
+            this.generations = new int[capacity];
+            this.next = new int[capacity];
+            this.prev = new int[capacity];
+            this.freeSlots = new int[capacity];
+            for (int slot = capacity - 1; slot >= 0; slot--) {
+                this.freeSlots[this.freeCount++] = slot;
+            }
+        } else {
+            this.tasks = Arrays.copyOf(this.tasks, capacity);
+            this.executors = Arrays.copyOf(this.executors, capacity);
+            this.deadlines = Arrays.copyOf(this.deadlines, capacity);
+            this.periods = Arrays.copyOf(this.periods, capacity);
+            this.generations = Arrays.copyOf(this.generations, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+            this.prev = Arrays.copyOf(this.prev, capacity);
+            this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+        }
+        this.allocated = capacity;
+    }
+
+    private long ceilTicks(long nanos) {
+        return (nanos + this.tickNanos - 1) / this.tickNanos;
+    }
+}
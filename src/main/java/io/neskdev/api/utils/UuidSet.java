@@ -0,0 +1,144 @@
+package io.neskdev.api.utils;
+
+import java.util.*;
+
+/**
+ * Immutable set of {@link UUID}s stored as pairs of longs in a flat open-addressing table.
+ * <p>
+ * Lookups neither box nor allocate. Updates return a new set, which makes it suited to rarely modified
+ * sets read on hot paths, published through a volatile field.
+ */
+public final class UuidSet implements Iterable<UUID> {
+
+    public static final UuidSet EMPTY = new UuidSet(new long[4], 0, false);
+
+    private final long[] table;
+    private final int size;
+    private final boolean containsZero;
+
+    private UuidSet(long[] table, int size, boolean containsZero) {
+        this.table = table;
+        this.size = size;
+        this.containsZero = containsZero;
+    }
+
+    public static UuidSet of(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] table = new long[capacityFor(uuids.size()) * 2];
+        int size = 0;
+        boolean containsZero = false;
+        for (UUID uuid : uuids) {
+            long most = uuid.getMostSignificantBits();
+            long least = uuid.getLeastSignificantBits();
+            if (most == 0 && least == 0) {
+                if (!containsZero) {
+                    containsZero = true;
+                    size++;
+                }
+            } else if (insert(table, most, least)) {
+                size++;
+            }
+        }
+        return new UuidSet(table, size, containsZero);
+    }
+
+    public boolean contains(UUID uuid) {
+        return uuid != null && contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public boolean contains(long most, long least) {
+        if (most == 0 && least == 0) {
+            return this.containsZero;
+        }
+
+        long[] table = this.table;
+        int mask = (table.length >>> 1) - 1;
+        for (int slot = hash(most, least) & mask; ; slot = (slot + 1) & mask) {
+            long slotMost = table[slot << 1];
+            long slotLeast = table[(slot << 1) + 1];
+            if (slotMost == most && slotLeast == least) {
+                return true;
+            }
+            if (slotMost == 0 && slotLeast == 0) {
+                return false;
+            }
+        }
+    }
+
+    public UuidSet with(UUID uuid) {
+        if (contains(uuid)) {
+            return this;
+        }
+        Set<UUID> uuids = toSet();
+        uuids.add(uuid);
+        return of(uuids);
+    }
+
+    public UuidSet without(UUID uuid) {
+        if (!contains(uuid)) {
+            return this;
+        }
+        Set<UUID> uuids = toSet();
+        uuids.remove(uuid);
+        return of(uuids);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public Set<UUID> toSet() {
+        Set<UUID> uuids = new HashSet<>(this.size * 2);
+        for (UUID uuid : this) {
+            uuids.add(uuid);
+        }
+        return uuids;
+    }
+
+    @Override
+    public Iterator<UUID> iterator() {
+        List<UUID> uuids = new ArrayList<>(this.size);
+        if (this.containsZero) {
+            uuids.add(new UUID(0, 0));
+        }
+        for (int i = 0; i < this.table.length; i += 2) {
+            if (this.table[i] != 0 || this.table[i + 1] != 0) {
+                uuids.add(new UUID(this.table[i], this.table[i + 1]));
+            }
+        }
+        return uuids.iterator();
+    }
+
+    private static boolean insert(long[] table, long most, long least) {
+        int mask = (table.length >>> 1) - 1;
+        for (int slot = hash(most, least) & mask; ; slot = (slot + 1) & mask) {
+            long slotMost = table[slot << 1];
+            long slotLeast = table[(slot << 1) + 1];
+            if (slotMost == most && slotLeast == least) {
+                return false;
+            }
+            if (slotMost == 0 && slotLeast == 0) {
+                table[slot << 1] = most;
+                table[(slot << 1) + 1] = least;
+                return true;
+            }
+        }
+    }
+
+    private static int capacityFor(int size) {
+        // Keeps the load factor at or below 0.5
+        return Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+    }
+
+    private static int hash(long most, long least) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
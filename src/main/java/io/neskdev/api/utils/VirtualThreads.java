@@ -0,0 +1,101 @@
+package io.neskdev.api.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Virtual-thread executors when the runtime supports them, bounded platform pools otherwise.
+ * <p>
+ * The API is compiled for Java 17, so virtual threads are looked up reflectively and only used on
+ * runtimes where they are final (Java 21 and later).
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+    private static final boolean AVAILABLE;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        MethodHandle newExecutor = null;
+        boolean available = false;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+            name = lookup.findVirtual(ofVirtualClass, "name", MethodType.methodType(ofVirtualClass, String.class, long.class));
+            factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+            newExecutor = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+
+            // Preview builds (19, 20) expose the methods but refuse to use them without --enable-preview
+            ((ExecutorService) newExecutor.invoke(virtualFactory(ofVirtual, name, factory, "NeskAPI-Probe-"))).shutdown();
+            available = true;
+        } catch (Throwable ignored) {
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+        AVAILABLE = available;
+    }
+
+    private VirtualThreads() {
+        throw new UnsupportedOperationException("VirtualThreads is a utility class and cannot be instantiated.");
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor, or a pool of {@code fallbackThreads} daemon threads
+     * when virtual threads are not available.
+     *
+     * @param name the prefix of the thread names
+     */
+    public static ExecutorService newExecutor(String name, int fallbackThreads) {
+        if (AVAILABLE) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(virtualFactory(OF_VIRTUAL, NAME, FACTORY, name + "-"));
+            } catch (Throwable ignored) {
+            }
+        }
+        return newPlatformPool(name, fallbackThreads);
+    }
+
+    /**
+     * Creates a pool of {@code threads} daemon platform threads, idle threads being released after a minute.
+     */
+    public static ExecutorService newPlatformPool(String name, int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public static ThreadFactory daemonFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory virtualFactory(MethodHandle ofVirtual, MethodHandle name, MethodHandle factory, String prefix) throws Throwable {
+        Object builder = ofVirtual.invoke();
+        builder = name.invoke(builder, prefix, 1L);
+        return (ThreadFactory) factory.invoke(builder);
+    }
+}
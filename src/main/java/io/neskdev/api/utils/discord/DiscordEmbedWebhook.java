@@ -3,14 +3,12 @@ package io.neskdev.api.utils.discord;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.SneakyThrows;
-import org.json.JSONObject;
 
 import javax.net.ssl.HttpsURLConnection;
 import java.awt.*;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -109,9 +107,28 @@ public class DiscordEmbedWebhook {
         Collections.addAll(this.embeds, embeds);
     }
 
-    @SneakyThrows
+    /**
+     * Queues the message on the shared {@link WebhookDispatcher}, without waiting for it to be sent.
+     * Never throws: a message that cannot be queued is logged and dropped.
+     */
     public void sendAsync() {
-        CompletableFuture.runAsync(this::send);
+        try {
+            queue();
+        } catch (IllegalArgumentException exception) {
+            System.out.println("[NeskAPI] Unable to send a Discord webhook: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Queues the message on the shared {@link WebhookDispatcher}.
+     *
+     * @return completed once Discord accepted the message, or exceptionally if it was dropped or refused
+     */
+    public CompletableFuture<Void> queue() {
+        if (this.content == null && this.embeds.isEmpty()) {
+            throw new IllegalArgumentException("Set content or add at least one EmbedBuilder");
+        }
+        return WebhookDispatcher.getInstance().send(this.url, encodePayload());
     }
 
     @SneakyThrows
@@ -125,103 +142,109 @@ public class DiscordEmbedWebhook {
             throw new IllegalArgumentException("Set content or add at least one EmbedBuilder");
         }
 
-        JSONObject json = new JSONObject();
+        Utf8JsonWriter payload = Utf8JsonWriter.local();
+        writePayload(payload);
 
-        json.put("content", this.content);
-        json.put("username", this.username);
-        json.put("avatar_url", this.avatarUrl);
-        json.put("tts", this.tts);
-
-        if (!this.embeds.isEmpty()) {
-            List<JSONObject> embedObjects = new ArrayList<>();
-
-            for (EmbedBuilder embed : this.embeds) {
-                JSONObject jsonEmbed = new JSONObject();
-
-                jsonEmbed.put("title", embed.getTitle());
-                jsonEmbed.put("description", embed.getDescription());
-                jsonEmbed.put("url", embed.getUrl());
-
-                if (embed.getColor() != null) {
-                    Color color = embed.getColor();
-                    int rgb = color.getRed();
-                    rgb = (rgb << 8) + color.getGreen();
-                    rgb = (rgb << 8) + color.getBlue();
-
-                    jsonEmbed.put("color", rgb);
-                }
-
-                EmbedBuilder.Footer footer = embed.getFooter();
-                EmbedBuilder.Image image = embed.getImage();
-                EmbedBuilder.Thumbnail thumbnail = embed.getThumbnail();
-                EmbedBuilder.Author author = embed.getAuthor();
-                List<EmbedBuilder.Field> fields = embed.getFields();
+        URL url = new URL(this.url);
+        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
+        connection.addRequestProperty("Content-Type", "application/json");
+        connection.addRequestProperty("User-Agent", "Java-DiscordEmbedWebhook-BY-Gelox_");
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setConnectTimeout(2000);
+        connection.setReadTimeout(2000);
 
-                if (footer != null) {
-                    JSONObject jsonFooter = new JSONObject();
+        OutputStream stream = connection.getOutputStream();
+        payload.writeTo(stream);
+        stream.flush();
+        stream.close();
 
-                    jsonFooter.put("text", footer.getText());
-                    jsonFooter.put("icon_url", footer.getIconUrl());
-                    jsonEmbed.put("footer", jsonFooter);
-                }
+        connection.getInputStream().close(); //I'm not sure why, but it doesn't work without getting the InputStream
+        connection.disconnect();
+    }
 
-                if (image != null) {
-                    JSONObject jsonImage = new JSONObject();
+    String getUrl() {
+        return this.url;
+    }
 
-                    jsonImage.put("url", image.getUrl());
-                    jsonEmbed.put("image", jsonImage);
-                }
+    String buildPayload() {
+        Utf8JsonWriter writer = Utf8JsonWriter.local();
+        writePayload(writer);
+        return writer.toString();
+    }
 
-                if (thumbnail != null) {
-                    JSONObject jsonThumbnail = new JSONObject();
+    byte[] encodePayload() {
+        Utf8JsonWriter writer = Utf8JsonWriter.local();
+        writePayload(writer);
+        return writer.toByteArray();
+    }
 
-                    jsonThumbnail.put("url", thumbnail.getUrl());
-                    jsonEmbed.put("thumbnail", jsonThumbnail);
-                }
+    void writePayload(Utf8JsonWriter writer) {
+        writer.beginObject()
+                .field("content", this.content)
+                .field("username", this.username)
+                .field("avatar_url", this.avatarUrl)
+                .field("tts", this.tts);
 
-                if (author != null) {
-                    JSONObject jsonAuthor = new JSONObject();
+        if (!this.embeds.isEmpty()) {
+            writer.name("embeds").beginArray();
+            for (EmbedBuilder embed : this.embeds) {
+                writeEmbed(writer, embed);
+            }
+            writer.endArray();
+        }
 
-                    jsonAuthor.put("name", author.getName());
-                    jsonAuthor.put("url", author.getUrl());
-                    jsonAuthor.put("icon_url", author.getIconUrl());
-                    jsonEmbed.put("author", jsonAuthor);
-                }
+        writer.endObject();
+    }
 
-                List<JSONObject> jsonFields = new ArrayList<>();
-                for (EmbedBuilder.Field field : fields) {
-                    JSONObject jsonField = new JSONObject();
+    private static void writeEmbed(Utf8JsonWriter writer, EmbedBuilder embed) {
+        writer.beginObject()
+                .field("title", embed.getTitle())
+                .field("description", embed.getDescription())
+                .field("url", embed.getUrl());
 
-                    jsonField.put("name", field.getName());
-                    jsonField.put("value", field.getValue());
-                    jsonField.put("inline", field.isInline());
+        if (embed.getColor() != null) {
+            writer.field("color", embed.getColor().getRGB() & 0xFFFFFF);
+        }
 
-                    jsonFields.add(jsonField);
-                }
+        EmbedBuilder.Footer footer = embed.getFooter();
+        if (footer != null) {
+            writer.name("footer").beginObject()
+                    .field("text", footer.getText())
+                    .field("icon_url", footer.getIconUrl())
+                    .endObject();
+        }
 
-                jsonEmbed.put("fields", jsonFields.toArray());
-                embedObjects.add(jsonEmbed);
-            }
+        EmbedBuilder.Image image = embed.getImage();
+        if (image != null) {
+            writer.name("image").beginObject().field("url", image.getUrl()).endObject();
+        }
 
-            json.put("embeds", embedObjects.toArray());
+        EmbedBuilder.Thumbnail thumbnail = embed.getThumbnail();
+        if (thumbnail != null) {
+            writer.name("thumbnail").beginObject().field("url", thumbnail.getUrl()).endObject();
         }
 
-        URL url = new URL(this.url);
-        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-        connection.addRequestProperty("Content-Type", "application/json");
-        connection.addRequestProperty("User-Agent", "Java-DiscordEmbedWebhook-BY-Gelox_");
-        connection.setDoOutput(true);
-        connection.setRequestMethod("POST");
-        connection.setConnectTimeout(2000);
-        connection.setReadTimeout(2000);
+        EmbedBuilder.Author author = embed.getAuthor();
+        if (author != null) {
+            writer.name("author").beginObject()
+                    .field("name", author.getName())
+                    .field("url", author.getUrl())
+                    .field("icon_url", author.getIconUrl())
+                    .endObject();
+        }
 
-        OutputStream stream = connection.getOutputStream();
-        stream.write(json.toString().getBytes(StandardCharsets.UTF_8));
-        stream.flush();
-        stream.close();
+        writer.name("fields").beginArray();
+        for (EmbedBuilder.Field field : embed.getFields()) {
+            writer.beginObject()
+                    .field("name", field.getName())
+                    .field("value", field.getValue())
+                    .field("inline", field.isInline())
+                    .endObject();
+        }
+        writer.endArray();
 
-        connection.getInputStream().close(); //I'm not sure why, but it doesn't work without getting the InputStream
-        connection.disconnect();
+        writer.endObject();
     }
 
     @Getter
@@ -1,13 +1,11 @@
 package io.neskdev.api.utils.discord;
 
 import lombok.SneakyThrows;
-import org.json.JSONObject;
 
 import javax.net.ssl.HttpsURLConnection;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -46,9 +44,29 @@ public class DiscordWebhook {
         return this;
     }
 
-    @SneakyThrows
+    /**
+     * Queues the message on the shared {@link WebhookDispatcher}, without waiting for it to be sent.
+     * Never throws: a message that cannot be queued is logged and dropped.
+     */
     public void sendAsync() {
-        CompletableFuture.runAsync(this::send);
+        try {
+            queue();
+        } catch (IllegalArgumentException exception) {
+            System.out.println("[NeskAPI] Unable to send a Discord webhook: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Queues the message on the shared {@link WebhookDispatcher}, which may merge it with other text messages
+     * sent to the same webhook.
+     *
+     * @return completed once Discord accepted the message, or exceptionally if it was dropped or refused
+     */
+    public CompletableFuture<Void> queue() {
+        if (this.content == null) {
+            throw new IllegalArgumentException("Set content or add at least one EmbedBuilder");
+        }
+        return WebhookDispatcher.getInstance().sendText(this.url, this.username, this.avatarUrl, this.content);
     }
 
     @SneakyThrows
@@ -62,13 +80,8 @@ public class DiscordWebhook {
             throw new IllegalArgumentException("Set content or add at least one EmbedBuilder");
         }
 
-        JSONObject json = new JSONObject();
-
-        json.put("content", this.content);
-        json.put("username", this.username);
-        json.put("avatar_url", this.avatarUrl);
-        json.put("tts", false);
-
+        Utf8JsonWriter payload = Utf8JsonWriter.local();
+        writePayload(payload);
 
         URL url = new URL(this.url);
         HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
@@ -80,7 +93,7 @@ public class DiscordWebhook {
         connection.setReadTimeout(2000);
 
         OutputStream stream = connection.getOutputStream();
-        stream.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        payload.writeTo(stream);
         stream.flush();
         stream.close();
 
@@ -88,4 +101,21 @@ public class DiscordWebhook {
         connection.disconnect();
     }
 
+    String getUrl() {
+        return this.url;
+    }
+
+    void writePayload(Utf8JsonWriter writer) {
+        writePayload(writer, this.content, this.username, this.avatarUrl);
+    }
+
+    static void writePayload(Utf8JsonWriter writer, CharSequence content, String username, String avatarUrl) {
+        writer.beginObject()
+                .field("content", content)
+                .field("username", username)
+                .field("avatar_url", avatarUrl)
+                .field("tts", false)
+                .endObject();
+    }
+
 }
\ No newline at end of file
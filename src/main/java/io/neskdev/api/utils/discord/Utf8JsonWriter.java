@@ -0,0 +1,259 @@
+package io.neskdev.api.utils.discord;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON writer encoding straight to a growable UTF-8 byte buffer.
+ * <p>
+ * No intermediate tree or {@link String} is built: strings are escaped and encoded as they are written.
+ * {@link #local()} hands out a per-thread instance whose buffer is reused across payloads, so encoding a
+ * payload only allocates its final byte array. Not thread-safe.
+ */
+public final class Utf8JsonWriter {
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<Utf8JsonWriter> LOCAL = ThreadLocal.withInitial(Utf8JsonWriter::new);
+
+    private byte[] buffer;
+    private int size;
+    private boolean comma;
+
+    public Utf8JsonWriter() {
+        this(512);
+    }
+
+    public Utf8JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * @return the writer of the current thread, reset
+     */
+    public static Utf8JsonWriter local() {
+        Utf8JsonWriter writer = LOCAL.get();
+        writer.reset();
+        if (writer.buffer.length > MAX_RETAINED_CAPACITY) {
+            writer.buffer = new byte[512];
+        }
+        return writer;
+    }
+
+    public Utf8JsonWriter beginObject() {
+        separate();
+        writeByte('{');
+        this.comma = false;
+        return this;
+    }
+
+    public Utf8JsonWriter endObject() {
+        writeByte('}');
+        this.comma = true;
+        return this;
+    }
+
+    public Utf8JsonWriter beginArray() {
+        separate();
+        writeByte('[');
+        this.comma = false;
+        return this;
+    }
+
+    public Utf8JsonWriter endArray() {
+        writeByte(']');
+        this.comma = true;
+        return this;
+    }
+
+    public Utf8JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        writeByte(':');
+        this.comma = false;
+        return this;
+    }
+
+    public Utf8JsonWriter value(CharSequence value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        writeString(value);
+        this.comma = true;
+        return this;
+    }
+
+    public Utf8JsonWriter value(long value) {
+        separate();
+        writeAscii(Long.toString(value));
+        this.comma = true;
+        return this;
+    }
+
+    public Utf8JsonWriter value(boolean value) {
+        separate();
+        writeAscii(value ? "true" : "false");
+        this.comma = true;
+        return this;
+    }
+
+    public Utf8JsonWriter nullValue() {
+        separate();
+        writeAscii("null");
+        this.comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a string member, or nothing if the value is null.
+     */
+    public Utf8JsonWriter field(String name, CharSequence value) {
+        return value != null ? name(name).value(value) : this;
+    }
+
+    public Utf8JsonWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public Utf8JsonWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Writes the escaped content of a string, without the surrounding quotes.
+     */
+    public Utf8JsonWriter writeEscaped(CharSequence value) {
+        int length = value.length();
+        // Worst case: every char escaped as \\u00XX
+        ensureCapacity(length * 6);
+        byte[] buffer = this.buffer;
+        int size = this.size;
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[size++] = (byte) c;
+                    continue;
+                }
+                buffer[size++] = '\\';
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        buffer[size++] = (byte) c;
+                        break;
+                    case '\n':
+                        buffer[size++] = 'n';
+                        break;
+                    case '\r':
+                        buffer[size++] = 'r';
+                        break;
+                    case '\t':
+                        buffer[size++] = 't';
+                        break;
+                    case '\b':
+                        buffer[size++] = 'b';
+                        break;
+                    case '\f':
+                        buffer[size++] = 'f';
+                        break;
+                    default:
+                        buffer[size++] = 'u';
+                        buffer[size++] = '0';
+                        buffer[size++] = '0';
+                        buffer[size++] = HEX[c >> 4];
+                        buffer[size++] = HEX[c & 0xF];
+                        break;
+                }
+            } else if (c < 0x800) {
+                buffer[size++] = (byte) (0xC0 | c >> 6);
+                buffer[size++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[size++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    // Lone surrogate, replaced like String#getBytes does
+                    buffer[size++] = '?';
+                }
+            } else {
+                buffer[size++] = (byte) (0xE0 | c >> 12);
+                buffer[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[size++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Appends bytes that are already valid JSON, such as the literal parts of a {@link WebhookTemplate}.
+     */
+    public Utf8JsonWriter writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, this.buffer, this.size, length);
+        this.size += length;
+        return this;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        stream.write(this.buffer, 0, this.size);
+    }
+
+    public void reset() {
+        this.size = 0;
+        this.comma = false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.buffer, 0, this.size, StandardCharsets.UTF_8);
+    }
+
+    private void separate() {
+        if (this.comma) {
+            writeByte(',');
+        }
+    }
+
+    private void writeString(CharSequence value) {
+        writeByte('"');
+        writeEscaped(value);
+        writeByte('"');
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer[this.size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        int required = this.size + extra;
+        if (required > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(required, this.buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package io.neskdev.api.utils.discord;
+
+import io.neskdev.api.utils.AsyncUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends Discord webhook messages over one shared {@link HttpClient}, so connections are reused.
+ * <p>
+ * Every webhook URL has its own bounded queue and at most one request in flight. Discord's rate limits are
+ * honoured: a 429 puts the message back at the head of the queue until {@code Retry-After} has passed, and an
+ * exhausted bucket ({@code X-RateLimit-Remaining: 0}) pauses the queue until {@code X-RateLimit-Reset-After}.
+ * Text messages queued behind each other for the same URL and sender are merged into one request, as long as
+ * the result fits in a Discord message. When a queue is full, new messages are dropped and their future fails.
+ */
+public class WebhookDispatcher {
+
+    public static final int MAX_CONTENT_LENGTH = 2000;
+
+    private static final String USER_AGENT = "Java-DiscordEmbedWebhook-BY-Gelox_";
+    private static final int MAX_ATTEMPTS = 5;
+    private static volatile WebhookDispatcher instance;
+
+    private final HttpClient client;
+    private final int queueCapacity;
+    private final Duration requestTimeout;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    private volatile long globalPausedUntil = System.nanoTime();
+
+    public WebhookDispatcher() {
+        this(100, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param queueCapacity   the maximum number of pending requests per webhook URL
+     * @param requestTimeout  the timeout of a single request
+     */
+    public WebhookDispatcher(int queueCapacity, long requestTimeout, TimeUnit unit) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.requestTimeout = Duration.ofNanos(unit.toNanos(requestTimeout));
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(AsyncUtils.getExecutor(AsyncUtils.Mode.IO))
+                .build();
+    }
+
+    /**
+     * @return the dispatcher used by {@link DiscordWebhook#queue()} and {@link DiscordEmbedWebhook#queue()}
+     */
+    public static WebhookDispatcher getInstance() {
+        WebhookDispatcher dispatcher = instance;
+        if (dispatcher == null) {
+            synchronized (WebhookDispatcher.class) {
+                dispatcher = instance;
+                if (dispatcher == null) {
+                    dispatcher = instance = new WebhookDispatcher();
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Queues a JSON payload as is.
+     */
+    public CompletableFuture<Void> send(String url, String payload) {
+        return send(url, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queues a UTF-8 encoded JSON payload as is. The array must not be modified afterwards.
+     */
+    public CompletableFuture<Void> send(String url, byte[] payload) {
+        return enqueue(url, new Message(payload, null, null, null));
+    }
+
+    /**
+     * Queues a text message, which may be merged with the text messages queued before it.
+     */
+    public CompletableFuture<Void> sendText(String url, String username, String avatarUrl, String content) {
+        if (content == null || content.isEmpty()) {
+            throw new IllegalArgumentException("content must not be empty");
+        }
+        return enqueue(url, new Message(null, username, avatarUrl, content));
+    }
+
+    public long getSentCount() {
+        return this.sent.get();
+    }
+
+    /**
+     * @return the number of messages refused because their queue was full
+     */
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    public long getRetriedCount() {
+        return this.retried.get();
+    }
+
+    /**
+     * @return the number of messages given up on after an error answer or too many attempts
+     */
+    public long getFailedCount() {
+        return this.failed.get();
+    }
+
+    /**
+     * @return the number of text messages merged into a message queued before them
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.get();
+    }
+
+    public long getRateLimitedCount() {
+        return this.rateLimited.get();
+    }
+
+    public int getQueueDepth(String url) {
+        Route route = this.routes.get(url);
+        if (route == null) {
+            return 0;
+        }
+        synchronized (route) {
+            return route.queue.size();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the URL is not a valid http or https URL
+     */
+    private CompletableFuture<Void> enqueue(String url, Message message) {
+        Route route = this.routes.computeIfAbsent(url, Route::new);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        synchronized (route) {
+            Message last = route.queue.peekLast();
+            if (message.isText() && last != null && last != route.inFlight && last.canMerge(message)) {
+                last.merge(message.text, future);
+                this.coalesced.incrementAndGet();
+                return future;
+            }
+            if (route.queue.size() >= this.queueCapacity) {
+                this.dropped.incrementAndGet();
+                future.completeExceptionally(new RejectedExecutionException("The webhook queue is full"));
+                return future;
+            }
+            message.futures.add(future);
+            route.queue.addLast(message);
+        }
+
+        drain(route);
+        return future;
+    }
+
+    private void drain(Route route) {
+        Message message;
+        synchronized (route) {
+            if (route.inFlight != null || route.queue.isEmpty() || route.scheduled) {
+                return;
+            }
+
+            long wait = Math.max(route.pausedUntil, this.globalPausedUntil) - System.nanoTime();
+            if (wait > 0) {
+                route.scheduled = true;
+                AsyncUtils.runLater(() -> {
+                    synchronized (route) {
+                        route.scheduled = false;
+                    }
+                    drain(route);
+                }, wait, TimeUnit.NANOSECONDS, AsyncUtils.Mode.IO);
+                return;
+            }
+
+            message = route.queue.peekFirst();
+            route.inFlight = message;
+        }
+
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(route.uri)
+                    .timeout(this.requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("User-Agent", USER_AGENT)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(message.payload()))
+                    .build();
+            response = this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            // Would fail the same way again: gives up at once rather than retrying
+            message.attempts = MAX_ATTEMPTS;
+            complete(route, message, null, e);
+            return;
+        }
+        response.whenComplete((answer, throwable) -> complete(route, message, answer, throwable));
+    }
+
+    private void complete(Route route, Message message, HttpResponse<String> response, Throwable throwable) {
+        int status = response != null ? response.statusCode() : -1;
+        boolean done;
+
+        synchronized (route) {
+            route.inFlight = null;
+            if (response != null) {
+                updateBucket(route, response);
+            }
+
+            if (status == 429) {
+                long retryAfter = retryAfterNanos(response);
+                long until = System.nanoTime() + retryAfter;
+                if (response.headers().firstValue("X-RateLimit-Global").map(Boolean::parseBoolean).orElse(false)) {
+                    this.globalPausedUntil = until;
+                }
+                route.pausedUntil = Math.max(route.pausedUntil, until);
+                // Counted once the pause is set, so that a message sent after seeing the count waits for it
+                this.rateLimited.incrementAndGet();
+                this.retried.incrementAndGet();
+                done = false;
+            } else if (throwable != null || status >= 500) {
+                if (++message.attempts >= MAX_ATTEMPTS) {
+                    done = true;
+                } else {
+                    // Exponential backoff: 0.5s, 1s, 2s, 4s
+                    route.pausedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(250L << message.attempts);
+                    this.retried.incrementAndGet();
+                    done = false;
+                }
+            } else {
+                done = true;
+            }
+
+            if (done) {
+                route.queue.pollFirst();
+            }
+        }
+
+        if (done) {
+            if (status >= 200 && status < 300) {
+                this.sent.incrementAndGet();
+                message.futures.forEach(future -> future.complete(null));
+            } else {
+                this.failed.incrementAndGet();
+                Throwable cause = throwable != null ? throwable
+                        : new IllegalStateException("Discord answered " + status + ": " + response.body());
+                System.out.println("[NeskAPI] Unable to send a Discord webhook: " + cause.getMessage());
+                message.futures.forEach(future -> future.completeExceptionally(cause));
+            }
+        }
+        drain(route);
+    }
+
+    private static void updateBucket(Route route, HttpResponse<String> response) {
+        Optional<String> remaining = response.headers().firstValue("X-RateLimit-Remaining");
+        Optional<String> resetAfter = response.headers().firstValue("X-RateLimit-Reset-After");
+        if (remaining.isPresent() && resetAfter.isPresent() && "0".equals(remaining.get())) {
+            long reset = secondsToNanos(resetAfter.get());
+            if (reset > 0) {
+                route.pausedUntil = Math.max(route.pausedUntil, System.nanoTime() + reset);
+            }
+        }
+    }
+
+    private static long retryAfterNanos(HttpResponse<String> response) {
+        long retryAfter = response.headers().firstValue("Retry-After").map(WebhookDispatcher::secondsToNanos).orElse(-1L);
+        if (retryAfter < 0) {
+            retryAfter = retryAfterFromBody(response.body());
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(50), retryAfter);
+    }
+
+    /**
+     * Reads {@code retry_after} from a 429 body such as {@code {"message": "...", "retry_after": 0.5}}.
+     */
+    private static long retryAfterFromBody(String body) {
+        int key = body != null ? body.indexOf("\"retry_after\"") : -1;
+        int colon = key >= 0 ? body.indexOf(':', key) : -1;
+        if (colon < 0) {
+            return TimeUnit.SECONDS.toNanos(1);
+        }
+
+        int end = colon + 1;
+        while (end < body.length() && " \t\r\n0123456789.eE+-".indexOf(body.charAt(end)) >= 0) {
+            end++;
+        }
+        long retryAfter = secondsToNanos(body.substring(colon + 1, end));
+        return retryAfter >= 0 ? retryAfter : TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static long secondsToNanos(String seconds) {
+        try {
+            return (long) (Double.parseDouble(seconds.trim()) * 1_000_000_000L);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Route {
+        private final URI uri;
+        private final Deque<Message> queue = new ArrayDeque<>();
+        private Message inFlight;
+        private long pausedUntil = System.nanoTime();
+        private boolean scheduled;
+
+        private Route(String url) {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme();
+            if (!"https".equalsIgnoreCase(scheme) && !"http".equalsIgnoreCase(scheme) || uri.getHost() == null) {
+                throw new IllegalArgumentException("Not an http(s) webhook URL: " + url);
+            }
+            this.uri = uri;
+        }
+    }
+
+    private static final class Message {
+        private final byte[] payload;
+        private final String username;
+        private final String avatarUrl;
+        private final StringBuilder text;
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>(1);
+        private int attempts;
+
+        private Message(byte[] payload, String username, String avatarUrl, String content) {
+            this.payload = payload;
+            this.username = username;
+            this.avatarUrl = avatarUrl;
+            this.text = content != null ? new StringBuilder(content) : null;
+        }
+
+        private boolean isText() {
+            return this.text != null;
+        }
+
+        private boolean canMerge(Message other) {
+            return isText() && other.isText()
+                    && Objects.equals(this.username, other.username)
+                    && Objects.equals(this.avatarUrl, other.avatarUrl)
+                    && this.text.length() + 1 + other.text.length() <= MAX_CONTENT_LENGTH;
+        }
+
+        private void merge(CharSequence content, CompletableFuture<Void> future) {
+            this.text.append('\n').append(content);
+            this.futures.add(future);
+        }
+
+        private byte[] payload() {
+            if (this.payload != null) {
+                return this.payload;
+            }
+            Utf8JsonWriter writer = Utf8JsonWriter.local();
+            DiscordWebhook.writePayload(writer, this.text, this.username, this.avatarUrl);
+            return writer.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.neskdev.api.utils.discord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Webhook payload encoded once, with {@code {{name}}} placeholders filled in on every send.
+ * <p>
+ * Placeholders can appear in any string of the webhook: content, username, embed titles, descriptions,
+ * fields... The JSON around them is kept as precompiled UTF-8 chunks, so rendering a payload only escapes
+ * the values and copies bytes.
+ * <pre>{@code
+ * WebhookTemplate sanction = WebhookTemplate.of(new DiscordEmbedWebhook(url)
+ *         .setDescription("{{player}} was banned")
+ *         .addField("Reason", "{{reason}}", false));
+ * sanction.sendAsync("Player", "Cheating");
+ * }</pre>
+ */
+public final class WebhookTemplate {
+
+    private final String url;
+    private final byte[] compiled;
+    // Literal chunk i spans [starts[i], ends[i]) and is followed by the variable slots[i], if any
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] slots;
+    private final List<String> variables;
+
+    private WebhookTemplate(String url, byte[] compiled) {
+        this.url = url;
+        this.compiled = compiled;
+
+        List<String> variables = new ArrayList<>();
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        int search = 0;
+        int open;
+        while ((open = indexOf(compiled, search)) >= 0) {
+            int close = indexOfClose(compiled, open + 2);
+            if (close < 0) {
+                search = open + 2;
+                continue;
+            }
+            String name = new String(compiled, open + 2, close - open - 2, StandardCharsets.UTF_8).trim();
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                slot = variables.size();
+                variables.add(name);
+            }
+            chunks.add(new int[]{start, open, slot});
+            start = search = close + 2;
+        }
+        chunks.add(new int[]{start, compiled.length, -1});
+
+        this.starts = new int[chunks.size()];
+        this.ends = new int[chunks.size()];
+        this.slots = new int[chunks.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            this.starts[i] = chunks.get(i)[0];
+            this.ends[i] = chunks.get(i)[1];
+            this.slots[i] = chunks.get(i)[2];
+        }
+        this.variables = Collections.unmodifiableList(variables);
+    }
+
+    public static WebhookTemplate of(DiscordEmbedWebhook webhook) {
+        return new WebhookTemplate(webhook.getUrl(), webhook.encodePayload());
+    }
+
+    public static WebhookTemplate of(DiscordWebhook webhook) {
+        Utf8JsonWriter writer = Utf8JsonWriter.local();
+        webhook.writePayload(writer);
+        return new WebhookTemplate(webhook.getUrl(), writer.toByteArray());
+    }
+
+    /**
+     * @return the placeholder names, in order of first appearance
+     */
+    public List<String> getVariables() {
+        return this.variables;
+    }
+
+    /**
+     * Renders the payload with the values given in the order of {@link #getVariables()}.
+     */
+    public byte[] render(CharSequence... values) {
+        if (values.length != this.variables.size()) {
+            throw new IllegalArgumentException("Expected " + this.variables.size() + " values " + this.variables
+                    + " but got " + values.length);
+        }
+        Utf8JsonWriter writer = Utf8JsonWriter.local();
+        for (int i = 0; i < this.slots.length; i++) {
+            writer.writeRaw(this.compiled, this.starts[i], this.ends[i] - this.starts[i]);
+            if (this.slots[i] >= 0) {
+                CharSequence value = values[this.slots[i]];
+                writer.writeEscaped(value != null ? value : "");
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Renders the payload with the values of the map. Missing values are left empty.
+     */
+    public byte[] render(Map<String, ? extends CharSequence> values) {
+        CharSequence[] ordered = new CharSequence[this.variables.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = values.get(this.variables.get(i));
+        }
+        return render(ordered);
+    }
+
+    public CompletableFuture<Void> sendAsync(CharSequence... values) {
+        return WebhookDispatcher.getInstance().send(this.url, render(values));
+    }
+
+    public CompletableFuture<Void> sendAsync(Map<String, ? extends CharSequence> values) {
+        return WebhookDispatcher.getInstance().send(this.url, render(values));
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '{' && bytes[i + 1] == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int indexOfClose(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '}' && bytes[i + 1] == '}') {
+                return i;
+            }
+            // A placeholder never spans the end of a JSON string
+            if (bytes[i] == '"' && !isEscaped(bytes, i)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return whether the character is preceded by an odd number of backslashes, e.g. the quote of {@code \"}
+     * but not the one of {@code \\"}
+     */
+    private static boolean isEscaped(byte[] bytes, int index) {
+        int backslashes = 0;
+        for (int i = index - 1; i >= 0 && bytes[i] == '\\'; i--) {
+            backslashes++;
+        }
+        return (backslashes & 1) == 1;
+    }
+}
@@ -0,0 +1,334 @@
+package io.neskdev.api.utils.math;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cursor parsing typed values out of a {@link CharSequence}, usually an {@link ArgumentView}.
+ * <p>
+ * Numbers, durations and UUIDs are parsed straight from the characters, without splitting the input into
+ * substrings; over an {@link ArgumentView}, they are read from the underlying argument strings. Values are separated by whitespace; {@link #nextString()} also accepts a double-quoted string,
+ * with {@code \"} and {@code \\} escapes. On malformed input an {@link IllegalArgumentException} is thrown
+ * and the cursor does not move.
+ * <pre>{@code
+ * ArgumentReader reader = StringUtil.reader(args, 1);
+ * UUID target = reader.nextUUID();
+ * Duration duration = reader.nextDuration();   // 1d12h, 30m, 45s...
+ * String reason = reader.remaining().toString();
+ * }</pre>
+ */
+public final class ArgumentReader {
+
+    private final CharSequence input;
+    private int cursor;
+    // Sequence holding the current value, and the index of its first char in the input. For an ArgumentView
+    // this is the argument itself, whose chars are cheaper to read than through the view
+    private CharSequence source;
+    private int shift;
+
+    public ArgumentReader(CharSequence input) {
+        this.input = input;
+    }
+
+    public int getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(int cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return true if another value follows, whitespace aside
+     */
+    public boolean hasNext() {
+        return skipWhitespace() < this.input.length();
+    }
+
+    /**
+     * @return the next value as a view, without copying it
+     */
+    public CharSequence nextToken() {
+        int start = skipWhitespace();
+        int end = tokenEnd(start);
+        if (start == end) {
+            throw error(start, "Expected a value");
+        }
+        this.cursor = end;
+        return this.input.subSequence(start, end);
+    }
+
+    public String nextWord() {
+        return nextToken().toString();
+    }
+
+    /**
+     * @return the next value, unquoted if it is a quoted string
+     */
+    public String nextString() {
+        int start = skipWhitespace();
+        if (start >= this.input.length() || this.input.charAt(start) != '"') {
+            return nextWord();
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = start + 1; i < this.input.length(); i++) {
+            char c = this.input.charAt(i);
+            if (c == '\\' && i + 1 < this.input.length()) {
+                builder.append(this.input.charAt(++i));
+            } else if (c == '"') {
+                this.cursor = i + 1;
+                return builder.toString();
+            } else {
+                builder.append(c);
+            }
+        }
+        throw error(start, "Unterminated quoted string");
+    }
+
+    public int nextInt() {
+        int start = skipWhitespace();
+        int end = tokenEnd(start);
+        long value = parseLong(start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error(start, "Number out of range");
+        }
+        this.cursor = end;
+        return (int) value;
+    }
+
+    public long nextLong() {
+        int start = skipWhitespace();
+        int end = tokenEnd(start);
+        long value = parseLong(start, end);
+        this.cursor = end;
+        return value;
+    }
+
+    public boolean nextBoolean() {
+        int start = skipWhitespace();
+        int end = tokenEnd(start);
+        boolean value;
+        if (regionMatches(start, end, "true") || regionMatches(start, end, "yes") || regionMatches(start, end, "on")) {
+            value = true;
+        } else if (regionMatches(start, end, "false") || regionMatches(start, end, "no") || regionMatches(start, end, "off")) {
+            value = false;
+        } else {
+            throw error(start, "Expected true or false");
+        }
+        this.cursor = end;
+        return value;
+    }
+
+    /**
+     * Parses a duration made of numbers followed by a unit: {@code s}, {@code m}, {@code h}, {@code d},
+     * {@code w} (weeks) or {@code mo} (30 days), e.g. {@code 1d12h} or {@code 90s}. A number without unit is
+     * in seconds.
+     */
+    public Duration nextDuration() {
+        int start = skipWhitespace();
+        int end = tokenEnd(start);
+        if (start == end) {
+            throw error(start, "Expected a duration");
+        }
+
+        long seconds = 0;
+        int i = start;
+        while (i < end) {
+            int numberStart = i;
+            long value = 0;
+            while (i < end && isDigit(at(i))) {
+                value = Math.addExact(Math.multiplyExact(value, 10), at(i) - '0');
+                i++;
+            }
+            if (i == numberStart) {
+                throw error(i, "Expected a number in the duration");
+            }
+
+            long unit;
+            if (i >= end) {
+                unit = 1;
+            } else {
+                char c = Character.toLowerCase(at(i++));
+                switch (c) {
+                    case 's':
+                        unit = 1;
+                        break;
+                    case 'm':
+                        if (i < end && Character.toLowerCase(at(i)) == 'o') {
+                            i++;
+                            unit = 30 * 86_400;
+                        } else {
+                            unit = 60;
+                        }
+                        break;
+                    case 'h':
+                        unit = 3_600;
+                        break;
+                    case 'd':
+                    case 'j':
+                        unit = 86_400;
+                        break;
+                    case 'w':
+                        unit = 7 * 86_400;
+                        break;
+                    default:
+                        throw error(i - 1, "Unknown duration unit '" + c + "'");
+                }
+            }
+            seconds = Math.addExact(seconds, Math.multiplyExact(value, unit));
+        }
+
+        this.cursor = end;
+        return Duration.ofSeconds(seconds);
+    }
+
+    /**
+     * Parses a UUID in its standard 36 characters form, or as 32 hexadecimal digits without dashes.
+     */
+    public UUID nextUUID() {
+        int start = skipWhitespace();
+        int end = tokenEnd(start);
+        int length = end - start;
+        if (length != 36 && length != 32) {
+            throw error(start, "Expected a UUID");
+        }
+
+        long most = 0;
+        long least = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = at(i);
+            if (c == '-' && length == 36 && (digits == 8 || digits == 12 || digits == 16 || digits == 20)) {
+                continue;
+            }
+            int nibble = hexDigit(c);
+            if (nibble < 0) {
+                throw error(i, "Expected a UUID");
+            }
+            if (digits < 16) {
+                most = most << 4 | nibble;
+            } else {
+                least = least << 4 | nibble;
+            }
+            digits++;
+        }
+        if (digits != 32) {
+            throw error(start, "Expected a UUID");
+        }
+
+        this.cursor = end;
+        return new UUID(most, least);
+    }
+
+    /**
+     * @return a view of everything after the cursor, whitespace aside, which moves the cursor to the end
+     */
+    public CharSequence remaining() {
+        int start = skipWhitespace();
+        this.cursor = this.input.length();
+        return this.input.subSequence(start, this.input.length());
+    }
+
+    private long parseLong(int start, int end) {
+        if (start == end) {
+            throw error(start, "Expected a number");
+        }
+        int i = start;
+        boolean negative = false;
+        char first = at(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) {
+            throw error(start, "Expected a number");
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            char c = at(i);
+            if (!isDigit(c)) {
+                throw error(i, "Expected a number");
+            }
+            try {
+                // Accumulated negatively, so that Long.MIN_VALUE parses
+                value = Math.subtractExact(Math.multiplyExact(value, 10), c - '0');
+            } catch (ArithmeticException e) {
+                throw error(start, "Number out of range");
+            }
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw error(start, "Number out of range");
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    private boolean regionMatches(int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(at(start + i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipWhitespace() {
+        int i = this.cursor;
+        while (i < this.input.length() && Character.isWhitespace(this.input.charAt(i))) {
+            i++;
+        }
+        this.cursor = i;
+        return i;
+    }
+
+    /**
+     * Points {@link #source} at the value starting at {@code start}, and returns the end of that value.
+     */
+    private int tokenEnd(int start) {
+        this.source = this.input;
+        this.shift = 0;
+        if (this.input instanceof ArgumentView && start < this.input.length()) {
+            // A value never spans two arguments, since the view separates them with a space
+            ArgumentView view = (ArgumentView) this.input;
+            int argument = view.argumentAt(start);
+            this.source = view.argument(argument);
+            this.shift = view.offsetOf(argument);
+        }
+
+        int i = start - this.shift;
+        while (i < this.source.length() && !Character.isWhitespace(this.source.charAt(i))) {
+            i++;
+        }
+        return i + this.shift;
+    }
+
+    private char at(int index) {
+        return this.source.charAt(index - this.shift);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private IllegalArgumentException error(int position, String message) {
+        return new IllegalArgumentException(message + " at position " + position + ": " + this.input);
+    }
+}
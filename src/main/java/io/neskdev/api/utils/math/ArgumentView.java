@@ -0,0 +1,169 @@
+package io.neskdev.api.utils.math;
+
+import java.util.Arrays;
+
+/**
+ * Read-only {@link CharSequence} over a range of command arguments, as if they were joined with spaces.
+ * <p>
+ * Nothing is copied: characters are read from the argument array itself, and {@link #subSequence(int, int)}
+ * returns another view. {@link #toString()} joins the range once, into an exactly sized string. Sequential
+ * reads, such as the ones of {@link ArgumentReader}, cost {@code O(1)} per character. Not thread-safe.
+ */
+public final class ArgumentView implements CharSequence {
+
+    private final String[] args;
+    private final int from;
+    // offsets[i] is the index of the first char of args[from + i]; the last entry is the length
+    private final int[] offsets;
+    private int lastArg;
+    private String joined;
+
+    /**
+     * @param from the first argument of the view
+     * @param to   the argument after the last one of the view
+     */
+    public ArgumentView(String[] args, int from, int to) {
+        if (from < 0 || to > args.length || from > to) {
+            throw new IndexOutOfBoundsException("Invalid argument range [" + from + ", " + to + ") for " + args.length + " arguments");
+        }
+        this.args = args;
+        this.from = from;
+        this.offsets = new int[to - from + 1];
+
+        int offset = 0;
+        for (int i = from; i < to; i++) {
+            this.offsets[i - from] = offset;
+            offset += args[i].length() + 1;
+        }
+        this.offsets[to - from] = Math.max(0, offset - 1);
+    }
+
+    public ArgumentView(String[] args, int from) {
+        this(args, from, args.length);
+    }
+
+    /**
+     * @return the number of arguments in the view
+     */
+    public int argumentCount() {
+        return this.offsets.length - 1;
+    }
+
+    public String argument(int index) {
+        if (index < 0 || index >= argumentCount()) {
+            throw new IndexOutOfBoundsException("Argument " + index + " out of " + argumentCount());
+        }
+        return this.args[this.from + index];
+    }
+
+    @Override
+    public int length() {
+        return this.offsets[this.offsets.length - 1];
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + length());
+        }
+
+        int arg = argumentAt(index);
+        int position = index - this.offsets[arg];
+        String argument = this.args[this.from + arg];
+        return position < argument.length() ? argument.charAt(position) : ' ';
+    }
+
+    /**
+     * @return the argument containing the char at {@code index}, counting the separator after it
+     */
+    int argumentAt(int index) {
+        int arg = this.lastArg;
+        if (index < this.offsets[arg] || index >= this.offsets[arg + 1]) {
+            if (arg + 2 < this.offsets.length && index >= this.offsets[arg + 1] && index < this.offsets[arg + 2]) {
+                arg++;
+            } else {
+                arg = Arrays.binarySearch(this.offsets, 0, this.offsets.length - 1, index);
+                if (arg < 0) {
+                    arg = -arg - 2;
+                }
+            }
+            this.lastArg = arg;
+        }
+        return arg;
+    }
+
+    /**
+     * @return the index of the first char of an argument in the view
+     */
+    int offsetOf(int argument) {
+        return this.offsets[argument];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + ") for length " + length());
+        }
+        return new Slice(this, start, end);
+    }
+
+    /**
+     * Copies the view into a builder, argument by argument.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        int count = argumentCount();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(this.args[this.from + i]);
+        }
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        if (this.joined == null) {
+            this.joined = StringUtil.join(this.args, this.from, this.from + argumentCount(), ' ');
+        }
+        return this.joined;
+    }
+
+    private static final class Slice implements CharSequence {
+        private final CharSequence source;
+        private final int start;
+        private final int end;
+
+        private Slice(CharSequence source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of " + length());
+            }
+            return this.source.charAt(this.start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + ") for length " + length());
+            }
+            return new Slice(this.source, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return new StringBuilder(length()).append(this.source, this.start, this.end).toString();
+        }
+    }
+}
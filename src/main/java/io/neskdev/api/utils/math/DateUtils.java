@@ -3,28 +3,84 @@ package io.neskdev.api.utils.math;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Date and duration formatting for scoreboards, action bars and messages.
+ * <p>
+ * Digits are written directly instead of going through {@link DateTimeFormatter} or {@link String#format},
+ * and every method has an {@code append} variant writing into a caller-supplied {@link StringBuilder}, so
+ * that a line can be built without intermediate strings.
+ */
 public class DateUtils {
 
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static volatile CachedNow cachedNow = new CachedNow(Long.MIN_VALUE, null);
+
+    /**
+     * @return today's date, as {@code dd/MM/yyyy}, formatted at most once per second
+     */
     public static String getFormatedNow() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        long second = System.currentTimeMillis() / 1000;
+        CachedNow cached = cachedNow;
+        if (cached.second != second) {
+            StringBuilder builder = new StringBuilder(10);
+            appendDate(builder, toLocal(second));
+            cached = cachedNow = new CachedNow(second, builder.toString());
+        }
+        return cached.text;
     }
 
+    public static StringBuilder appendFormatedNow(StringBuilder builder) {
+        return builder.append(getFormatedNow());
+    }
+
+    /**
+     * @param unix a timestamp in seconds
+     */
     public static String unixToTime(int unix) {
-        return Instant.ofEpochSecond(unix)
-                .atZone(ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
+        return appendUnixToTime(new StringBuilder(19), unix).toString();
     }
 
+    /**
+     * @param unix a timestamp in milliseconds
+     */
     public static String unixToTime(long unix) {
-        return LocalDateTime.ofInstant(Instant.ofEpochMilli(unix), ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
+        return appendUnixToTime(new StringBuilder(19), unix).toString();
+    }
+
+    /**
+     * Appends {@code dd/MM/yyyy HH:mm:ss}.
+     *
+     * @param unix a timestamp in seconds
+     */
+    public static StringBuilder appendUnixToTime(StringBuilder builder, int unix) {
+        return appendDateTime(builder, toLocal(unix));
+    }
+
+    /**
+     * Appends {@code dd/MM/yyyy HH:mm:ss}.
+     *
+     * @param unix a timestamp in milliseconds
+     */
+    public static StringBuilder appendUnixToTime(StringBuilder builder, long unix) {
+        return appendDateTime(builder, toLocal(Math.floorDiv(unix, 1000L)));
     }
 
     public static String unixToCalenderTime(int unix) {
-        return Instant.ofEpochSecond(unix)
-                .atZone(ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        return appendUnixToCalenderTime(new StringBuilder(10), unix).toString();
+    }
+
+    /**
+     * Appends {@code dd/MM/yyyy}.
+     *
+     * @param unix a timestamp in seconds
+     */
+    public static StringBuilder appendUnixToCalenderTime(StringBuilder builder, int unix) {
+        return appendDate(builder, toLocal(unix));
     }
 
     public static int unixToHours(int unix) {
@@ -36,49 +92,106 @@ public class DateUtils {
     }
 
     public static String getFormatTimeDifference(int timeDifference) {
-        long seconds = (timeDifference) % 60;
-        long minutes = (timeDifference / 60) % 60;
-        long hours = (timeDifference / (60 * 60));
+        return appendFormatTimeDifference(new StringBuilder(40), timeDifference).toString();
+    }
 
-        StringBuilder formattedTime = new StringBuilder();
+    /**
+     * Appends a duration as {@code 1 heure, 2 minutes et 3 secondes}.
+     */
+    public static StringBuilder appendFormatTimeDifference(StringBuilder builder, int timeDifference) {
+        int seconds = timeDifference % 60;
+        int minutes = (timeDifference / 60) % 60;
+        int hours = timeDifference / (60 * 60);
 
         if (hours > 0) {
-            formattedTime.append(hours).append(" heure");
+            builder.append(hours).append(" heure");
             if (hours > 1) {
-                formattedTime.append("s");
+                builder.append('s');
             }
-            formattedTime.append(", ");
+            builder.append(", ");
         }
 
-        formattedTime.append(minutes).append(" minute");
+        builder.append(minutes).append(" minute");
         if (minutes > 1) {
-            formattedTime.append("s");
+            builder.append('s');
         }
 
-        formattedTime.append(" et ").append(seconds).append(" seconde");
+        builder.append(" et ").append(seconds).append(" seconde");
         if (seconds > 1) {
-            formattedTime.append("s");
+            builder.append('s');
         }
-
-        return formattedTime.toString();
+        return builder;
     }
 
     public static String secToTime(int sec) {
-        final int seconds = sec % 60;
-        int minutes = sec / 60;
-        if (minutes >= 60) {
-            final int hours = minutes / 60;
-            minutes %= 60;
-            if (hours >= 24) {
-                final int days = hours / 24;
-                return String.format("%d jour(s) %02d:%02d:%02d", days, hours % 24, minutes, seconds);
-            }
-            return String.format("%02d:%02d:%02d", hours, minutes, seconds);
-        }
-        return String.format("00:%02d:%02d", minutes, seconds);
+        return secToTime((long) sec);
     }
 
     public static String secToTime(Long sec) {
+        return secToTime(sec.longValue());
+    }
+
+    public static String secToTime(long sec) {
+        return appendSecToTime(new StringBuilder(20), sec).toString();
+    }
+
+    /**
+     * Appends a duration as {@code HH:mm:ss}, preceded by {@code N jour(s)} past a day.
+     */
+    public static StringBuilder appendSecToTime(StringBuilder builder, long sec) {
+        if (sec < 0) {
+            // Negative durations keep the historical String.format output
+            return builder.append(legacySecToTime(sec));
+        }
+
+        long seconds = sec % 60;
+        long minutes = sec / 60;
+        long hours = minutes / 60;
+        minutes %= 60;
+        if (hours >= 24) {
+            builder.append(hours / 24).append(" jour(s) ");
+            hours %= 24;
+        }
+        appendTwoDigits(builder, hours).append(':');
+        appendTwoDigits(builder, minutes).append(':');
+        return appendTwoDigits(builder, seconds);
+    }
+
+    public static int secondToTickMinute(int m) {
+        return (60 * 20) * m;
+    }
+
+    private static LocalDateTime toLocal(long epochSecond) {
+        ZoneId zone = ZoneId.systemDefault();
+        ZoneOffset offset = zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+    }
+
+    private static StringBuilder appendDate(StringBuilder builder, LocalDateTime time) {
+        appendTwoDigits(builder, time.getDayOfMonth()).append('/');
+        appendTwoDigits(builder, time.getMonthValue()).append('/');
+        int year = time.getYear();
+        if (year >= 0 && year < 1000) {
+            builder.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+        }
+        return builder.append(year);
+    }
+
+    private static StringBuilder appendDateTime(StringBuilder builder, LocalDateTime time) {
+        appendDate(builder, time).append(' ');
+        appendTwoDigits(builder, time.getHour()).append(':');
+        appendTwoDigits(builder, time.getMinute()).append(':');
+        return appendTwoDigits(builder, time.getSecond());
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder builder, long value) {
+        if (value < 10) {
+            builder.append('0');
+        }
+        return builder.append(value);
+    }
+
+    private static String legacySecToTime(long sec) {
         final long seconds = sec % 60;
         long minutes = sec / 60;
         if (minutes >= 60) {
@@ -93,7 +206,13 @@ public class DateUtils {
         return String.format("00:%02d:%02d", minutes, seconds);
     }
 
-    public static int secondToTickMinute(int m) {
-        return (60 * 20) * m;
+    private static final class CachedNow {
+        private final long second;
+        private final String text;
+
+        private CachedNow(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
     }
 }
@@ -0,0 +1,219 @@
+package io.neskdev.api.utils.math;
+
+import io.neskdev.api.utils.ServerConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered identifiers, unique across the network without any database round trip.
+ * <p>
+ * An id is a positive long made of, from the most significant bits: 41 bits of milliseconds since
+ * {@link #EPOCH} (about 69 years), 10 bits of node id and 12 bits of sequence, i.e. 4096 ids per millisecond
+ * and per node. Node ids must be assigned so that no two running servers share one, through the
+ * {@link #NODE_ID} property of {@code server.properties}, {@link #setDefaultNodeId(int)} or a
+ * {@link io.neskdev.api.database.NodeIdLease}; they are never guessed. The state is a single {@link AtomicLong}
+ * updated by compare-and-set: generating never blocks, and when the sequence of a millisecond is exhausted or
+ * the clock goes back, ids keep increasing by borrowing from the next millisecond.
+ * <p>
+ * The string forms have a fixed width and an alphabet in ASCII order, so they sort like the ids themselves,
+ * which keeps Mongo index inserts append-only.
+ */
+public final class IdGenerator {
+
+    /**
+     * 2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH = 1_704_067_200_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * Property of {@code server.properties} holding the node id of the default generator.
+     */
+    public static final String NODE_ID = "node-id";
+
+    public static final int BASE62_LENGTH = 11;
+    public static final int BASE36_LENGTH = 13;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final char[] BASE36_ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private static volatile IdGenerator defaultGenerator;
+    private static volatile boolean defaultUsed;
+
+    private final long node;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | next sequence
+    private final AtomicLong state = new AtomicLong();
+
+    public IdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * @return the generator of this server, with the node id set by {@link #setDefaultNodeId(int)} or else the
+     * {@link #NODE_ID} property
+     * @throws IllegalStateException if no node id was assigned
+     */
+    public static IdGenerator getDefault() {
+        IdGenerator generator = defaultGenerator;
+        if (generator == null || !defaultUsed) {
+            synchronized (IdGenerator.class) {
+                generator = defaultGenerator;
+                if (generator == null) {
+                    int nodeId = ServerConfig.getDefault().get().getInt(NODE_ID, -1);
+                    if (nodeId < 0) {
+                        throw new IllegalStateException("No node id assigned to this server: set " + NODE_ID
+                                + " in server.properties, or call setDefaultNodeId with a leased id");
+                    }
+                    generator = defaultGenerator = new IdGenerator(nodeId);
+                }
+                defaultUsed = true;
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * Sets the node id of the default generator, e.g. from a {@link io.neskdev.api.database.NodeIdLease}.
+     *
+     * @throws IllegalStateException if the default generator was already handed out, since a new one could
+     *                               issue ids again in the current millisecond
+     */
+    public static synchronized void setDefaultNodeId(int nodeId) {
+        if (defaultUsed) {
+            throw new IllegalStateException("The default generator is already in use with node id " + defaultGenerator.getNodeId());
+        }
+        defaultGenerator = new IdGenerator(nodeId);
+    }
+
+    public int getNodeId() {
+        return (int) (this.node >>> SEQUENCE_BITS);
+    }
+
+    public long nextId() {
+        return reserve(1);
+    }
+
+    /**
+     * Generates {@code count} consecutive ids, with one atomic update per millisecond of sequence.
+     */
+    public long[] nextIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            // A reservation never spans two milliseconds, so large batches take a few of them
+            int batch = (int) Math.min(count - filled, SEQUENCE_MASK + 1);
+            long first = reserve(batch);
+            long available = Math.min(batch, (SEQUENCE_MASK + 1) - (first & SEQUENCE_MASK));
+            for (int i = 0; i < available; i++) {
+                ids[filled++] = first + i;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return a new id as 11 base62 characters
+     */
+    public String generate() {
+        return new String(encodeBase62(nextId(), new char[BASE62_LENGTH], 0));
+    }
+
+    /**
+     * @return {@code count} new ids as 11 base62 characters each
+     */
+    public String[] generate(int count) {
+        long[] ids = nextIds(count);
+        String[] strings = new String[count];
+        char[] buffer = new char[BASE62_LENGTH];
+        for (int i = 0; i < count; i++) {
+            strings[i] = new String(encodeBase62(ids[i], buffer, 0));
+        }
+        return strings;
+    }
+
+    /**
+     * @return a new id as 13 lowercase base36 characters, for case-insensitive contexts
+     */
+    public String generateBase36() {
+        return new String(encodeBase36(nextId(), new char[BASE36_LENGTH], 0));
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    public static int sequenceOf(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+
+    /**
+     * Writes a non-negative long as {@link #BASE62_LENGTH} base62 characters.
+     *
+     * @return the destination array
+     */
+    public static char[] encodeBase62(long value, char[] destination, int offset) {
+        return encode(value, destination, offset, BASE62_LENGTH, ALPHABET, 62);
+    }
+
+    public static char[] encodeBase36(long value, char[] destination, int offset) {
+        return encode(value, destination, offset, BASE36_LENGTH, BASE36_ALPHABET, 36);
+    }
+
+    public static long decodeBase62(CharSequence text) {
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 10;
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + 36;
+            } else {
+                throw new IllegalArgumentException("Invalid base62 character: " + c);
+            }
+            value = value * 62 + digit;
+        }
+        return value;
+    }
+
+    private static char[] encode(long value, char[] destination, int offset, int length, char[] alphabet, int radix) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative");
+        }
+        for (int i = offset + length - 1; i >= offset; i--) {
+            destination[i] = alphabet[(int) (value % radix)];
+            value /= radix;
+        }
+        return destination;
+    }
+
+    /**
+     * @return the first of {@code count} reserved ids, which may be fewer if the millisecond runs out
+     */
+    private long reserve(int count) {
+        while (true) {
+            long current = this.state.get();
+            long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+            // Ids keep increasing even if the clock goes back. An exhausted sequence has already carried
+            // into the next millisecond
+            long start = Math.max(current, now);
+            long end = Math.min(start + count, (start | SEQUENCE_MASK) + 1);
+            if (this.state.compareAndSet(current, end)) {
+                return (start >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | this.node | start & SEQUENCE_MASK;
+            }
+        }
+    }
+}
@@ -10,6 +10,10 @@ public class RandomStringUtils {
     private static final int range = 36 * 36 * 36 * 36 * 36; // 36^5 is less than 2^31
     private static final String zeroes = "00000";
 
+    /**
+     * Random identifier, not guaranteed to be unique. Use {@link IdGenerator} for identifiers that must be
+     * unique across servers, such as match or sanction ids.
+     */
     public static String generate(int length) {
         StringBuilder sb = new StringBuilder(length+5);
         while (sb.length() < length) {
@@ -41,12 +41,56 @@ public class StringUtil {
      * @return the array as a String
      */
     public static String consolidateStrings(String[] args, int start) {
-        String ret = args[start];
-        if (args.length > (start + 1)) {
-            for (int i = (start + 1); i < args.length; i++)
-                ret = ret + " " + args[i];
+        if (start < 0 || start >= args.length) {
+            throw new ArrayIndexOutOfBoundsException(start);
         }
-        return ret;
+        return join(args, start, args.length, ' ');
+    }
+
+    /**
+     * Joins a range of an array in a single pass, into a string of the exact final size.
+     *
+     * @param from the first index to join
+     * @param to   the index after the last one to join
+     */
+    public static String join(String[] args, int from, int to, char separator) {
+        if (from >= to) {
+            return "";
+        }
+        if (to - from == 1) {
+            return String.valueOf(args[from]);
+        }
+
+        int length = to - from - 1;
+        for (int i = from; i < to; i++) {
+            length += String.valueOf(args[i]).length();
+        }
+
+        char[] chars = new char[length];
+        int position = 0;
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                chars[position++] = separator;
+            }
+            String arg = String.valueOf(args[i]);
+            arg.getChars(0, arg.length(), chars, position);
+            position += arg.length();
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return a view of the arguments from {@code start}, joined with spaces, without copying them
+     */
+    public static ArgumentView view(String[] args, int start) {
+        return new ArgumentView(args, start);
+    }
+
+    /**
+     * @return a reader parsing typed values from the arguments from {@code start}
+     */
+    public static ArgumentReader reader(String[] args, int start) {
+        return new ArgumentReader(new ArgumentView(args, start));
     }
 
 }
@@ -0,0 +1,36 @@
+package io.neskdev.api;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Polls a condition met asynchronously, such as a message delivered through Redis.
+ */
+public final class Await {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+    private Await() {
+        throw new UnsupportedOperationException("Await is a utility class and cannot be instantiated.");
+    }
+
+    public static void until(String description, BooleanSupplier condition) {
+        until(description, condition, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public static void until(String description, BooleanSupplier condition, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for " + description);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.neskdev.api.database;
+
+import io.neskdev.api.Await;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedMaintenanceSystemTest {
+
+    private FakeRedisServer server;
+    private FakeDatabaseManager databaseManager;
+    private InMemoryMaintenanceSystem firstDelegate;
+    private CachedMaintenanceSystem first;
+    private CachedMaintenanceSystem second;
+
+    @BeforeEach
+    void setUp() {
+        this.server = FakeRedisServer.start();
+        this.databaseManager = new FakeDatabaseManager(this.server);
+        // Separate delegates, so that the second node only learns the changes through the feed
+        this.firstDelegate = new InMemoryMaintenanceSystem();
+        this.first = new CachedMaintenanceSystem(this.firstDelegate, this.databaseManager, 1, TimeUnit.HOURS);
+        this.second = new CachedMaintenanceSystem(new InMemoryMaintenanceSystem(), this.databaseManager, 1, TimeUnit.HOURS);
+        Await.until("both nodes subscribed", () -> this.server.getSubscriberCount(CachedMaintenanceSystem.CHANNEL) == 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.first.close();
+        this.second.close();
+        this.databaseManager.close();
+        this.server.close();
+    }
+
+    @Test
+    void changesLeaveInTheOrderTheyWereMade() {
+        UUID player = UUID.randomUUID();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i <= 200; i++) {
+            boolean on = i % 2 == 0;
+            this.first.setMaintenance(on);
+            expected.add("M" + (on ? "1" : "0"));
+            if (on) {
+                this.first.addAllowedPlayer(player);
+                expected.add("A" + player);
+            } else {
+                this.first.removeAllowedPlayer(player);
+                expected.add("R" + player);
+            }
+        }
+
+        Await.until("every change", () -> this.server.getPublished(CachedMaintenanceSystem.CHANNEL).size() == expected.size());
+        List<String> published = new ArrayList<>();
+        for (byte[] message : this.server.getPublished(CachedMaintenanceSystem.CHANNEL)) {
+            String text = new String(message, StandardCharsets.UTF_8);
+            published.add(text.substring(text.indexOf(':') + 1));
+        }
+        assertEquals(expected, published);
+        Await.until("the last change", () -> this.second.isMaintenance() && this.second.isAllowed(player));
+        assertTrue(this.first.isMaintenance());
+    }
+
+    @Test
+    void loginChecksStayInMemory() {
+        UUID allowed = UUID.randomUUID();
+        this.first.addAllowedPlayer(allowed);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(this.first.isAllowed(allowed));
+            assertTrue(this.first.hasPermission(allowed));
+            assertFalse(this.first.hasPermission(UUID.randomUUID()));
+        }
+        assertEquals(0, this.firstDelegate.getChecks());
+    }
+
+    @Test
+    void delegateWithoutListingAnswersLoginChecks() {
+        InMemoryMaintenanceSystem unlisted = new InMemoryMaintenanceSystem() {
+            @Override
+            public Optional<Collection<UUID>> getAllowedPlayers() {
+                return Optional.empty();
+            }
+        };
+        UUID allowed = UUID.randomUUID();
+        unlisted.addAllowedPlayer(allowed);
+
+        try (CachedMaintenanceSystem cached = new CachedMaintenanceSystem(unlisted, this.databaseManager, 1, TimeUnit.HOURS)) {
+            assertTrue(cached.hasPermission(allowed));
+            assertTrue(cached.isAllowed(allowed));
+            assertTrue(cached.getAllowedPlayers().isEmpty());
+            assertEquals(2, unlisted.getChecks());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.neskdev.api.database;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link AsyncCollection} without Mongo, recording the bulk writes it receives and failing them on demand.
+ */
+public final class FakeAsyncCollection<T> extends AsyncCollection<T> {
+
+    private final List<List<WriteModel<? extends T>>> bulkWrites = new CopyOnWriteArrayList<>();
+    private final List<BulkWriteOptions> bulkWriteOptions = new CopyOnWriteArrayList<>();
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+    public FakeAsyncCollection() {
+        super(null, null);
+    }
+
+    /**
+     * Fails the next bulk write with this error instead of recording it as applied.
+     */
+    public void failNext(Throwable error) {
+        this.failures.add(error);
+    }
+
+    /**
+     * @return the requests of every bulk write received so far, in order
+     */
+    public List<List<WriteModel<? extends T>>> getBulkWrites() {
+        return this.bulkWrites;
+    }
+
+    public List<BulkWriteOptions> getBulkWriteOptions() {
+        return this.bulkWriteOptions;
+    }
+
+    @Override
+    public CompletableFuture<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends T>> requests) {
+        return bulkWrite(requests, new BulkWriteOptions());
+    }
+
+    @Override
+    public CompletableFuture<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends T>> requests, BulkWriteOptions options) {
+        this.bulkWrites.add(new ArrayList<>(requests));
+        this.bulkWriteOptions.add(options);
+        Throwable failure = this.failures.poll();
+        if (failure != null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        return CompletableFuture.completedFuture(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+    }
+}
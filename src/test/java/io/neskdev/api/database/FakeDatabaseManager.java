@@ -0,0 +1,49 @@
+package io.neskdev.api.database;
+
+import com.mongodb.client.MongoClient;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * {@link DatabaseManager} connected to a {@link FakeRedisServer}, without Mongo.
+ */
+public final class FakeDatabaseManager implements DatabaseManager, AutoCloseable {
+
+    private final FakeRedisServer server;
+    private final JedisPool pool;
+
+    public FakeDatabaseManager(FakeRedisServer server) {
+        this.server = server;
+        this.pool = server.createPool();
+    }
+
+    @Override
+    public Jedis getJedis() {
+        return new Jedis("127.0.0.1", this.server.getPort());
+    }
+
+    @Override
+    public JedisPool getJedisPool() {
+        return this.pool;
+    }
+
+    @Override
+    public MongoClient getMongoClient() {
+        throw new UnsupportedOperationException("No Mongo in tests");
+    }
+
+    @Override
+    public AsyncMongo getAsyncMongo() {
+        throw new UnsupportedOperationException("No Mongo in tests");
+    }
+
+    @Override
+    public MaintenanceSystem getMaintenanceSystem() {
+        throw new UnsupportedOperationException("No maintenance system in tests");
+    }
+
+    @Override
+    public void close() {
+        this.pool.close();
+    }
+}
@@ -0,0 +1,353 @@
+package io.neskdev.api.database;
+
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for a Redis server, speaking enough RESP for the tests: strings, keys and pub/sub.
+ * <p>
+ * Keys and channels are binary-safe. Every published message is also recorded, and every command counted, so
+ * that tests can check what reached the server.
+ */
+public final class FakeRedisServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, List<byte[]>> published = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    private FakeRedisServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::accept, "FakeRedis-accept");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    public static FakeRedisServer start() {
+        try {
+            return new FakeRedisServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    public JedisPool createPool() {
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setJmxEnabled(false);
+        return new JedisPool(config, "127.0.0.1", getPort(), 2000);
+    }
+
+    /**
+     * @return the messages published on the channel so far, in order
+     */
+    public List<byte[]> getPublished(String channel) {
+        return this.published.getOrDefault(channel, List.of());
+    }
+
+    public int getCommandCount(String command) {
+        AtomicInteger count = this.commandCounts.get(command.toUpperCase(Locale.ROOT));
+        return count == null ? 0 : count.get();
+    }
+
+    public int getSubscriberCount(String channel) {
+        Set<Connection> channelSubscribers = this.subscribers.get(channel);
+        return channelSubscribers == null ? 0 : channelSubscribers.size();
+    }
+
+    public byte[] get(String key) {
+        return this.values.get(key);
+    }
+
+    /**
+     * Closes every client connection, as a restart of the server would.
+     */
+    public void dropConnections() {
+        for (Connection connection : this.connections) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        try {
+            this.serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        dropConnections();
+    }
+
+    private void accept() {
+        while (this.running) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                Connection connection = new Connection(socket);
+                this.connections.add(connection);
+                Thread thread = new Thread(connection::serve, "FakeRedis-client");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (this.running) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static String key(byte[] bytes) {
+        // Latin-1 maps every byte to one char, so binary keys round-trip
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final Set<String> channels = new LinkedHashSet<>();
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void serve() {
+            try (InputStream in = new BufferedInputStream(this.socket.getInputStream())) {
+                List<byte[]> command;
+                while ((command = readCommand(in)) != null) {
+                    if (!execute(command)) {
+                        break;
+                    }
+                }
+            } catch (SocketException | EOFException ignored) {
+                // Closed by either side
+            } catch (IOException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            } finally {
+                close();
+            }
+        }
+
+        private boolean execute(List<byte[]> command) throws IOException {
+            String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase(Locale.ROOT);
+            commandCounts.computeIfAbsent(name, ignored -> new AtomicInteger()).incrementAndGet();
+
+            synchronized (this.out) {
+                switch (name) {
+                    case "PING":
+                        if (this.channels.isEmpty()) {
+                            writeSimple("PONG");
+                        } else {
+                            writeArrayHeader(2);
+                            writeBulk(bytes("pong"));
+                            writeBulk(new byte[0]);
+                        }
+                        break;
+                    case "ECHO":
+                        writeBulk(command.get(1));
+                        break;
+                    case "SELECT":
+                    case "AUTH":
+                    case "CLIENT":
+                        writeSimple("OK");
+                        break;
+                    case "QUIT":
+                        writeSimple("OK");
+                        this.out.flush();
+                        return false;
+                    case "GET":
+                        writeBulk(values.get(key(command.get(1))));
+                        break;
+                    case "SET":
+                        values.put(key(command.get(1)), command.get(2));
+                        writeSimple("OK");
+                        break;
+                    case "DEL": {
+                        int removed = 0;
+                        for (int i = 1; i < command.size(); i++) {
+                            removed += values.remove(key(command.get(i))) != null ? 1 : 0;
+                        }
+                        writeInteger(removed);
+                        break;
+                    }
+                    case "EXISTS":
+                        writeInteger(values.containsKey(key(command.get(1))) ? 1 : 0);
+                        break;
+                    case "PUBLISH":
+                        writeInteger(publish(key(command.get(1)), command.get(2)));
+                        break;
+                    case "SUBSCRIBE":
+                        for (int i = 1; i < command.size(); i++) {
+                            String channel = key(command.get(i));
+                            this.channels.add(channel);
+                            subscribers.computeIfAbsent(channel, ignored -> ConcurrentHashMap.newKeySet()).add(this);
+                            writeSubscription("subscribe", command.get(i));
+                        }
+                        break;
+                    case "UNSUBSCRIBE": {
+                        List<String> targets = new ArrayList<>();
+                        for (int i = 1; i < command.size(); i++) {
+                            targets.add(key(command.get(i)));
+                        }
+                        if (targets.isEmpty()) {
+                            targets.addAll(this.channels);
+                        }
+                        if (targets.isEmpty()) {
+                            writeSubscription("unsubscribe", null);
+                        }
+                        for (String channel : targets) {
+                            this.channels.remove(channel);
+                            Set<Connection> channelSubscribers = subscribers.get(channel);
+                            if (channelSubscribers != null) {
+                                channelSubscribers.remove(this);
+                            }
+                            writeSubscription("unsubscribe", bytes(channel));
+                        }
+                        break;
+                    }
+                    default:
+                        writeError("ERR unknown command '" + name + "'");
+                        break;
+                }
+                this.out.flush();
+            }
+            return true;
+        }
+
+        private int publish(String channel, byte[] message) {
+            published.computeIfAbsent(channel, ignored -> new CopyOnWriteArrayList<>()).add(message);
+            Set<Connection> channelSubscribers = subscribers.getOrDefault(channel, Set.of());
+            int delivered = 0;
+            for (Connection subscriber : channelSubscribers) {
+                if (subscriber.deliver(channel, message)) {
+                    delivered++;
+                }
+            }
+            return delivered;
+        }
+
+        private boolean deliver(String channel, byte[] message) {
+            synchronized (this.out) {
+                try {
+                    writeArrayHeader(3);
+                    writeBulk(bytes("message"));
+                    writeBulk(bytes(channel));
+                    writeBulk(message);
+                    this.out.flush();
+                    return true;
+                } catch (IOException e) {
+                    close();
+                    return false;
+                }
+            }
+        }
+
+        private void writeSubscription(String kind, byte[] channel) throws IOException {
+            writeArrayHeader(3);
+            writeBulk(bytes(kind));
+            writeBulk(channel);
+            writeInteger(this.channels.size());
+        }
+
+        private void close() {
+            connections.remove(this);
+            for (String channel : this.channels) {
+                Set<Connection> channelSubscribers = subscribers.get(channel);
+                if (channelSubscribers != null) {
+                    channelSubscribers.remove(this);
+                }
+            }
+            try {
+                this.socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void writeSimple(String value) throws IOException {
+            this.out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeError(String value) throws IOException {
+            this.out.write(('-' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeInteger(long value) throws IOException {
+            this.out.write((":" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeArrayHeader(int size) throws IOException {
+            this.out.write(("*" + size + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBulk(byte[] value) throws IOException {
+            if (value == null) {
+                this.out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            this.out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+            this.out.write(value);
+            this.out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("Unsupported request type " + (char) type);
+        }
+        int size = Integer.parseInt(readLine(in));
+        List<byte[]> command = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Expected a bulk string");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] value = in.readNBytes(length);
+            if (value.length < length) {
+                throw new EOFException();
+            }
+            readLine(in);
+            command.add(value);
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package io.neskdev.api.database;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link MaintenanceSystem} kept in memory, counting the login checks that reach it.
+ */
+public class InMemoryMaintenanceSystem implements MaintenanceSystem {
+
+    private final Set<UUID> allowedPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger checks = new AtomicInteger();
+    private volatile boolean maintenance;
+
+    @Override
+    public boolean isMaintenance() {
+        return this.maintenance;
+    }
+
+    @Override
+    public void setMaintenance(boolean status) {
+        this.maintenance = status;
+    }
+
+    @Override
+    public void addAllowedPlayer(UUID uuid) {
+        this.allowedPlayers.add(uuid);
+    }
+
+    @Override
+    public void removeAllowedPlayer(UUID uuid) {
+        this.allowedPlayers.remove(uuid);
+    }
+
+    @Override
+    public boolean isAllowed(UUID uuid) {
+        this.checks.incrementAndGet();
+        return this.allowedPlayers.contains(uuid);
+    }
+
+    @Override
+    public boolean hasPermission(UUID uuid) {
+        this.checks.incrementAndGet();
+        return this.allowedPlayers.contains(uuid);
+    }
+
+    @Override
+    public Optional<Collection<UUID>> getAllowedPlayers() {
+        return Optional.of(Set.copyOf(this.allowedPlayers));
+    }
+
+    public int getChecks() {
+        return this.checks.get();
+    }
+}
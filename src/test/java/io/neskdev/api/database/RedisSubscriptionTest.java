@@ -0,0 +1,123 @@
+package io.neskdev.api.database;
+
+import com.mongodb.client.MongoClient;
+import io.neskdev.api.Await;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisSubscriptionTest {
+
+    private FakeRedisServer server;
+    private FakeDatabaseManager databaseManager;
+
+    @BeforeEach
+    void setUp() {
+        this.server = FakeRedisServer.start();
+        this.databaseManager = new FakeDatabaseManager(this.server);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.databaseManager.close();
+        this.server.close();
+    }
+
+    @Test
+    void subscriptionDoesNotHoldAPooledConnection() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (RedisSubscription subscription = new RedisSubscription(this.databaseManager, (channel, message) -> received.add(message), "test").start()) {
+            Await.until("the subscription", subscription::isSubscribed);
+            assertEquals(0, this.databaseManager.getJedisPool().getNumActive());
+
+            this.databaseManager.useRedis(jedis -> jedis.publish("test", "hello"));
+            Await.until("the message", () -> received.contains("hello"));
+        }
+    }
+
+    @Test
+    void binarySubscriptionResubscribesAfterADisconnection() {
+        List<byte[]> received = new CopyOnWriteArrayList<>();
+        byte[] channel = "binary".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger subscriptions = new AtomicInteger();
+        try (RedisSubscription subscription = RedisSubscription.binary(this.databaseManager, (ignored, message) -> received.add(message), channel)
+                .onSubscribe(() -> subscriptions.incrementAndGet())
+                .start()) {
+            Await.until("the subscription", () -> subscriptions.get() == 1);
+
+            this.server.dropConnections();
+            Await.until("the new subscription", () -> subscriptions.get() == 2);
+
+            this.databaseManager.useRedis(jedis -> jedis.publish(channel, new byte[]{0, (byte) 0xFF}));
+            Await.until("the message", () -> !received.isEmpty());
+            assertArrayEquals(new byte[]{0, (byte) 0xFF}, received.get(0));
+        }
+    }
+
+    @Test
+    void poolLessManagerFailsToSubscribe() {
+        try (Jedis shared = new Jedis("127.0.0.1", this.server.getPort())) {
+            DatabaseManager poolLess = new PoolLessDatabaseManager(shared);
+
+            // Commands run on the shared connection, but nothing can subscribe on it
+            poolLess.useRedis(jedis -> jedis.set("key", "value"));
+            assertEquals("value", new String(this.server.get("key"), StandardCharsets.UTF_8));
+            assertThrows(UnsupportedOperationException.class,
+                    () -> new RedisSubscription(poolLess, (channel, message) -> {
+                    }, "test").start());
+        }
+    }
+
+    @Test
+    void poolLessManagerSubscribesThroughItsOwnConnections() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (Jedis shared = new Jedis("127.0.0.1", this.server.getPort())) {
+            DatabaseManager poolLess = new PoolLessDatabaseManager(shared) {
+                @Override
+                public Jedis openJedis() {
+                    return new Jedis("127.0.0.1", server.getPort());
+                }
+            };
+            try (RedisSubscription subscription = new RedisSubscription(poolLess, (channel, message) -> received.add(message), "test").start()) {
+                Await.until("the subscription", subscription::isSubscribed);
+
+                poolLess.useRedis(jedis -> jedis.publish("test", "hello"));
+                Await.until("the message", () -> received.contains("hello"));
+            }
+        }
+    }
+
+    /**
+     * Implements only the shared connection, as the database managers written before the pool did.
+     */
+    private static class PoolLessDatabaseManager implements DatabaseManager {
+        private final Jedis shared;
+
+        private PoolLessDatabaseManager(Jedis shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public Jedis getJedis() {
+            return this.shared;
+        }
+
+        @Override
+        public MongoClient getMongoClient() {
+            throw new UnsupportedOperationException("No Mongo in tests");
+        }
+
+        @Override
+        public MaintenanceSystem getMaintenanceSystem() {
+            throw new UnsupportedOperationException("No maintenance system in tests");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package io.neskdev.api.messaging;
+
+import io.neskdev.api.Await;
+import io.neskdev.api.database.FakeDatabaseManager;
+import io.neskdev.api.database.FakeRedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageBusTest {
+
+    private static final MessageCodec<String> TEXT = new MessageCodec<>() {
+        @Override
+        public void encode(String message, MessageWriter writer) {
+            writer.writeString(message);
+        }
+
+        @Override
+        public String decode(MessageReader reader) {
+            return reader.readString();
+        }
+    };
+
+    private final MessageType<String> chat = MessageType.of(1, "chat", TEXT).setDispatch(MessageType.Dispatch.INLINE);
+    private final MessageType<String> transfer = MessageType.of(2, "transfer", TEXT)
+            .setDispatch(MessageType.Dispatch.INLINE)
+            .setBatched(false);
+
+    private FakeRedisServer server;
+    private FakeDatabaseManager databaseManager;
+    private MessageBus sender;
+    private MessageBus receiver;
+
+    @BeforeEach
+    void setUp() {
+        this.server = FakeRedisServer.start();
+        this.databaseManager = new FakeDatabaseManager(this.server);
+        // Batched messages only leave on an explicit flush
+        this.sender = new MessageBus(this.databaseManager, MessageBus.DEFAULT_CHANNEL, 1, TimeUnit.HOURS, 32 * 1024);
+        this.receiver = new MessageBus(this.databaseManager, MessageBus.DEFAULT_CHANNEL, 1, TimeUnit.HOURS, 32 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.sender.close();
+        this.receiver.close();
+        this.databaseManager.close();
+        this.server.close();
+    }
+
+    @Test
+    void messageRoundTrips() {
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.receiver.subscribe(this.chat, received::add);
+        this.sender.register(this.chat);
+        start();
+
+        this.sender.publish(this.chat, "hello");
+        this.sender.publish(this.chat, "é ✓");
+        this.sender.flush().join();
+
+        Await.until("both messages", () -> received.size() == 2);
+        assertEquals(List.of("hello", "é ✓"), new ArrayList<>(received));
+        assertEquals(2, this.receiver.getReceivedCount());
+        assertEquals(0, this.receiver.getDroppedCount());
+    }
+
+    @Test
+    void batchedMessagesShareAFrame() {
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.receiver.subscribe(this.chat, received::add).subscribe(this.transfer, received::add);
+        this.sender.register(this.chat).register(this.transfer);
+        start();
+
+        for (int i = 0; i < 10; i++) {
+            this.sender.publish(this.chat, "chat-" + i);
+        }
+        this.sender.flush().join();
+        assertEquals(1, this.server.getPublished(MessageBus.DEFAULT_CHANNEL).size());
+
+        // Unbatched: leaves without a flush, each in its own frame once the previous one arrived
+        for (int i = 0; i < 10; i++) {
+            int expected = 11 + i;
+            this.sender.publish(this.transfer, "transfer-" + i);
+            Await.until("transfer-" + i, () -> received.size() == expected);
+        }
+        assertEquals(11, this.server.getPublished(MessageBus.DEFAULT_CHANNEL).size());
+        // Counted once Redis answered, which may come after the subscriber received the frame
+        Await.until("the frames to be counted", () -> this.sender.getFrameCount() == 11);
+        assertEquals(20, this.sender.getPublishedCount());
+    }
+
+    @Test
+    void framesDoNotExceedTheMaximumSize() {
+        MessageBus small = new MessageBus(this.databaseManager, MessageBus.DEFAULT_CHANNEL, 1, TimeUnit.HOURS, 256);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.receiver.subscribe(this.chat, received::add);
+        small.register(this.chat);
+        small.start();
+        this.receiver.start();
+        Await.until("both nodes subscribed", () -> this.server.getSubscriberCount(MessageBus.DEFAULT_CHANNEL) == 2);
+
+        List<String> sent = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sent.add("message-" + i + "-" + "x".repeat(40));
+            small.publish(this.chat, sent.get(i));
+        }
+        String large = "y".repeat(600);
+        small.publish(this.chat, large);
+        sent.add(large);
+        small.flush().join();
+
+        Await.until("every message", () -> received.size() == 101);
+        assertEquals(sent, new ArrayList<>(received));
+        List<byte[]> frames = this.server.getPublished(MessageBus.DEFAULT_CHANNEL);
+        for (int i = 0; i < frames.size() - 1; i++) {
+            assertTrue(frames.get(i).length <= 256, "frame " + i + " holds " + frames.get(i).length + " bytes");
+        }
+        // Alone in its frame
+        assertTrue(frames.get(frames.size() - 1).length > 600);
+        small.close();
+    }
+
+    @Test
+    void unknownTypeIsSkipped() {
+        MessageType<String> unknown = MessageType.of(3, "unknown", TEXT);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.receiver.subscribe(this.chat, received::add);
+        this.sender.register(this.chat).register(unknown);
+        start();
+
+        this.sender.publish(unknown, "skipped");
+        this.sender.publish(this.chat, "kept");
+        this.sender.flush().join();
+
+        Await.until("the known message", () -> received.size() == 1);
+        assertEquals("kept", received.peek());
+        assertEquals(1, this.receiver.getDroppedCount());
+    }
+
+    @Test
+    void ownFramesAreIgnored() {
+        Queue<String> own = new ConcurrentLinkedQueue<>();
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.sender.subscribe(this.chat, own::add);
+        this.receiver.subscribe(this.chat, received::add);
+        start();
+
+        this.sender.publish(this.chat, "hello");
+        this.sender.flush().join();
+
+        Await.until("the other node", () -> received.size() == 1);
+        // Both connections got the frame; the sender's subscriber has had the time to process it
+        this.receiver.publish(this.chat, "reply");
+        this.receiver.flush().join();
+        Await.until("the reply", () -> own.size() == 1);
+        assertEquals("reply", own.peek());
+        assertEquals(1, this.sender.getReceivedCount());
+        assertEquals(0, this.sender.getDroppedCount());
+    }
+
+    @Test
+    void malformedFramesAreDropped() {
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.receiver.subscribe(this.chat, received::add);
+        this.sender.register(this.chat);
+        start();
+
+        // Another version, then a payload announcing more bytes than the frame holds
+        publishRaw(new MessageWriter().writeByte(99).writeLong(1).writeVarInt(1).writeVarInt(0).toByteArray());
+        publishRaw(new MessageWriter().writeByte(1).writeLong(1).writeVarInt(1).writeVarInt(50).writeByte(1).toByteArray());
+        publishRaw(new byte[0]);
+
+        this.sender.publish(this.chat, "after");
+        this.sender.flush().join();
+
+        Await.until("the valid message", () -> received.size() == 1);
+        assertEquals("after", received.peek());
+        assertEquals(3, this.receiver.getDroppedCount());
+    }
+
+    @Test
+    void asyncMessagesKeepTheirOrder() {
+        MessageType<String> ordered = MessageType.of(4, "ordered", TEXT);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        this.receiver.subscribe(ordered, received::add);
+        this.sender.register(ordered);
+        start();
+
+        List<String> sent = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sent.add("message-" + i);
+            this.sender.publish(ordered, "message-" + i);
+            if (i % 20 == 0) {
+                this.sender.flush().join();
+            }
+        }
+        this.sender.flush().join();
+
+        Await.until("every message", () -> received.size() == 200);
+        assertEquals(sent, new ArrayList<>(received));
+    }
+
+    @Test
+    void syncTypeRequiresAScheduler() {
+        MessageType<String> sync = MessageType.of(5, "sync", TEXT).setDispatch(MessageType.Dispatch.SYNC);
+
+        assertThrows(IllegalStateException.class, () -> this.receiver.subscribe(sync, message -> {
+        }));
+    }
+
+    private void start() {
+        this.sender.start();
+        this.receiver.start();
+        Await.until("both nodes subscribed", () -> this.server.getSubscriberCount(MessageBus.DEFAULT_CHANNEL) == 2);
+    }
+
+    private void publishRaw(byte[] frame) {
+        this.databaseManager.useRedis(jedis -> jedis.publish(MessageBus.DEFAULT_CHANNEL.getBytes(StandardCharsets.UTF_8), frame));
+    }
+}
@@ -0,0 +1,129 @@
+package io.neskdev.api.rank;
+
+import io.neskdev.api.Await;
+import io.neskdev.api.database.FakeDatabaseManager;
+import io.neskdev.api.database.FakeRedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedRankRepositoryTest {
+
+    private FakeRedisServer server;
+    private FakeDatabaseManager databaseManager;
+    private InMemoryRankRepository delegate;
+    private CachedRankRepository first;
+    private CachedRankRepository second;
+
+    @BeforeEach
+    void setUp() {
+        this.server = FakeRedisServer.start();
+        this.databaseManager = new FakeDatabaseManager(this.server);
+        this.delegate = new InMemoryRankRepository();
+        this.delegate.addRank(rank("member", 0, true));
+        this.delegate.addRank(rank("admin", 100, false));
+
+        this.first = new CachedRankRepository(this.delegate, this.databaseManager, 1, TimeUnit.HOURS);
+        this.second = new CachedRankRepository(this.delegate, this.databaseManager, 1, TimeUnit.HOURS);
+        Await.until("both nodes subscribed",
+                () -> this.server.getSubscriberCount(CachedRankRepository.INVALIDATION_CHANNEL) == 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.first.close();
+        this.second.close();
+        this.databaseManager.close();
+        this.server.close();
+    }
+
+    @Test
+    void missingRankDoesNotReachTheDelegateOnceLoaded() {
+        assertEquals("admin", this.first.getRank("admin").getName());
+        int calls = this.delegate.getRankCalls();
+
+        for (int i = 0; i < 100; i++) {
+            assertNull(this.first.getRank("ghost"));
+        }
+        assertEquals(calls, this.delegate.getRankCalls());
+    }
+
+    @Test
+    void snapshotIsOrderedByPower() {
+        assertEquals("member", this.first.getSnapshot().lowest().getName());
+        assertEquals("member", this.first.getSnapshot().getDefaultRank().getName());
+        assertEquals("admin", this.first.getSnapshot().highest().getName());
+    }
+
+    @Test
+    void addedRankReachesTheOtherNode() {
+        assertNull(this.second.getRank("vip"));
+
+        this.first.addRank(rank("vip", 10, false));
+
+        assertEquals(10, this.first.getRank("vip").getPower());
+        Await.until("the invalidation of vip", () -> this.second.getRank("vip") != null);
+        assertEquals(3, this.second.getRanks().size());
+    }
+
+    @Test
+    void deletedRankLeavesTheOtherNode() {
+        assertNotNull(this.second.getRank("admin"));
+
+        this.first.deleteRank(rank("admin", 100, false));
+
+        assertNull(this.first.getRank("admin"));
+        Await.until("the invalidation of admin", () -> this.second.getRank("admin") == null);
+    }
+
+    @Test
+    void writeMadeElsewhereIsAppliedAndBroadcast() {
+        assertNull(this.second.getRank("vip"));
+
+        // Written to the database by another path, e.g. a write-behind queue
+        this.delegate.addRank(rank("vip", 10, false));
+        this.first.applyWrite("vip", rank("vip", 10, false));
+
+        assertEquals(10, this.first.getRank("vip").getPower());
+        Await.until("the invalidation of vip", () -> this.second.getRank("vip") != null);
+    }
+
+    @Test
+    void reloadsAfterTheSubscriptionIsRestored() {
+        assertNull(this.second.getRank("builder"));
+
+        this.server.dropConnections();
+        // Changed behind the caches' back while they are disconnected
+        this.delegate.addRank(rank("builder", 20, false));
+
+        Await.until("the resynchronization", () -> this.second.getRank("builder") != null);
+    }
+
+    @Test
+    void failedLoadFallsBackToTheDelegate() {
+        InMemoryRankRepository failing = new InMemoryRankRepository();
+        failing.addRank(rank("admin", 100, false));
+        failing.setListingFails(true);
+
+        try (CachedRankRepository cache = new CachedRankRepository(failing, this.databaseManager, 1, TimeUnit.HOURS)) {
+            Await.until("the load on subscription", () -> failing.getRanksCalls() == 1);
+            assertEquals("admin", cache.getRank("admin").getName());
+            assertNull(cache.getRank("ghost"));
+            assertEquals(2, failing.getRankCalls());
+
+            // Loaded by the next miss once the delegate recovers
+            failing.setListingFails(false);
+            assertEquals("admin", cache.getRank("admin").getName());
+            assertEquals(2, failing.getRankCalls());
+        }
+    }
+
+    private static Rank rank(String name, int power, boolean defaultRank) {
+        return new SimpleRank(name, "[" + name + "]", power, defaultRank, Set.of());
+    }
+}
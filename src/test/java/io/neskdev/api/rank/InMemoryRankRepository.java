@@ -0,0 +1,67 @@
+package io.neskdev.api.rank;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RankRepository} standing in for Mongo, counting the calls that would reach it.
+ */
+public final class InMemoryRankRepository implements RankRepository {
+
+    private final Map<String, Rank> ranks = new ConcurrentHashMap<>();
+    private final AtomicInteger getRankCalls = new AtomicInteger();
+    private final AtomicInteger getRanksCalls = new AtomicInteger();
+    private volatile boolean listingFails;
+
+    @Override
+    public Rank getRank(String name) {
+        this.getRankCalls.incrementAndGet();
+        return this.ranks.get(name);
+    }
+
+    @Override
+    public List<Rank> getRanks() {
+        this.getRanksCalls.incrementAndGet();
+        if (this.listingFails) {
+            throw new IllegalStateException("listing unavailable");
+        }
+        return new ArrayList<>(this.ranks.values());
+    }
+
+    @Override
+    public void addRank(Rank rank) {
+        this.ranks.put(rank.getName(), rank);
+    }
+
+    @Override
+    public void deleteRank(Rank rank) {
+        this.ranks.remove(rank.getName());
+    }
+
+    @Override
+    public void applyWrite(String name, Rank rank) {
+        if (rank != null) {
+            this.ranks.put(name, rank);
+        } else {
+            this.ranks.remove(name);
+        }
+    }
+
+    /**
+     * Makes {@link #getRanks()} throw, as a listing query timing out would.
+     */
+    public void setListingFails(boolean listingFails) {
+        this.listingFails = listingFails;
+    }
+
+    public int getRankCalls() {
+        return this.getRankCalls.get();
+    }
+
+    public int getRanksCalls() {
+        return this.getRanksCalls.get();
+    }
+}
@@ -0,0 +1,170 @@
+package io.neskdev.api.rank;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerRankCacheTest {
+
+    private InMemoryRankRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository = new InMemoryRankRepository();
+        this.repository.addRank(rank("member", 0, true));
+        this.repository.addRank(rank("vip", 10, false));
+        this.repository.addRank(rank("admin", 100, false));
+    }
+
+    @Test
+    void regularsSurviveABurstOfNewPlayers() {
+        // Seeded: the sketch overestimates some frequencies, depending on the keys that collide
+        Random random = new Random(42);
+        PlayerRankCache cache = new PlayerRankCache(this.repository, uuid -> null, 100);
+        List<UUID> regulars = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            regulars.add(uuid);
+            cache.set(uuid, this.repository.getRank("vip"));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (UUID uuid : regulars) {
+                assertNotNull(cache.getIfPresent(uuid));
+            }
+        }
+
+        // Seen once each, as on a login
+        for (int i = 0; i < 1000; i++) {
+            UUID visitor = new UUID(random.nextLong(), random.nextLong());
+            assertNull(cache.getIfPresent(visitor));
+            cache.set(visitor, null);
+        }
+
+        int kept = 0;
+        for (UUID uuid : regulars) {
+            if (cache.getIfPresent(uuid) != null) {
+                kept++;
+            }
+        }
+        assertTrue(kept >= 95, kept + " regular(s) kept");
+        assertEquals(100, cache.size());
+        assertEquals(1000, cache.getEvictionCount());
+        assertTrue(cache.getRejectedCount() >= 950);
+    }
+
+    @Test
+    void removedEntriesLeaveTheOthersReachable() {
+        PlayerRankCache cache = new PlayerRankCache(this.repository, uuid -> null, 1000);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            UUID uuid = UUID.randomUUID();
+            players.add(uuid);
+            cache.set(uuid, this.repository.getRank(i % 2 == 0 ? "vip" : "admin"));
+        }
+
+        for (int i = 0; i < players.size(); i += 3) {
+            cache.invalidate(players.get(i));
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            Rank rank = cache.getIfPresent(players.get(i));
+            if (i % 3 == 0) {
+                assertNull(rank);
+            } else {
+                assertEquals(i % 2 == 0 ? "vip" : "admin", rank.getName());
+            }
+        }
+        assertEquals(400, cache.size());
+    }
+
+    @Test
+    void concurrentLoadsShareTheSameFuture() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        PlayerRankCache cache = new PlayerRankCache(this.repository, uuid -> {
+            loads.incrementAndGet();
+            release.await();
+            return "vip";
+        }, 100);
+        UUID uuid = UUID.randomUUID();
+
+        CompletableFuture<Rank> first = cache.load(uuid);
+        CompletableFuture<Rank> second = cache.load(uuid);
+        release.countDown();
+
+        assertSame(first, second);
+        assertEquals("vip", first.get(5, TimeUnit.SECONDS).getName());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getDeduplicatedLoadCount());
+        assertEquals("vip", cache.getIfPresent(uuid).getName());
+    }
+
+    @Test
+    void loadOvertakenByAnInvalidationIsNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PlayerRankCache cache = new PlayerRankCache(this.repository, uuid -> {
+            release.await();
+            return "vip";
+        }, 100);
+        UUID uuid = UUID.randomUUID();
+
+        CompletableFuture<Rank> load = cache.load(uuid);
+        cache.invalidate(uuid);
+        release.countDown();
+
+        assertEquals("vip", load.get(5, TimeUnit.SECONDS).getName());
+        assertNull(cache.getIfPresent(uuid));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void loadOvertakenByASetKeepsTheNewRank() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PlayerRankCache cache = new PlayerRankCache(this.repository, uuid -> {
+            release.await();
+            return "vip";
+        }, 100);
+        UUID uuid = UUID.randomUUID();
+
+        CompletableFuture<Rank> load = cache.load(uuid);
+        cache.set(uuid, this.repository.getRank("admin"));
+        release.countDown();
+
+        assertEquals("admin", load.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("admin", cache.getIfPresent(uuid).getName());
+    }
+
+    @Test
+    void playerWithoutAnyRankIsNotLoadedAgain() {
+        InMemoryRankRepository withoutDefault = new InMemoryRankRepository();
+        AtomicInteger loads = new AtomicInteger();
+        PlayerRankCache cache = new PlayerRankCache(withoutDefault, uuid -> {
+            loads.incrementAndGet();
+            return null;
+        }, 100);
+        UUID uuid = UUID.randomUUID();
+
+        cache.set(uuid, null);
+        CompletableFuture<Rank> load = cache.load(uuid);
+
+        assertTrue(load.isDone());
+        assertNull(load.join());
+        assertEquals(0, loads.get());
+        assertEquals(0, cache.getLoadCount());
+    }
+
+    private static Rank rank(String name, int power, boolean defaultRank) {
+        return new SimpleRank(name, "[" + name + "]", power, defaultRank, Set.of());
+    }
+}
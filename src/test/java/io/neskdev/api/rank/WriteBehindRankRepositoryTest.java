@@ -0,0 +1,131 @@
+package io.neskdev.api.rank;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import io.neskdev.api.database.FakeAsyncCollection;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindRankRepositoryTest {
+
+    private InMemoryRankRepository delegate;
+    private FakeAsyncCollection<Document> collection;
+    private WriteBehindRankRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.delegate = new InMemoryRankRepository();
+        this.delegate.addRank(rank("member", 0, true));
+        this.collection = new FakeAsyncCollection<>();
+        // Flushed explicitly by the tests
+        this.repository = new WriteBehindRankRepository(this.delegate, this.collection, 100, 1, TimeUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.repository.close();
+    }
+
+    @Test
+    void mutationsOfARankCoalesce() {
+        CompletableFuture<Void> first = this.repository.addRankAsync(rank("vip", 10, false));
+        CompletableFuture<Void> second = this.repository.addRankAsync(rank("vip", 20, false));
+        this.repository.deleteRankAsync(rank("member", 0, true));
+
+        assertEquals(20, this.repository.getRank("vip").getPower());
+        assertNull(this.repository.getRank("member"));
+        assertEquals(List.of("vip"), names(this.repository.getSnapshot().getRanks()));
+        assertEquals(1, this.repository.getCoalescedCount());
+        assertEquals(2, this.repository.getQueueDepth());
+
+        this.repository.flush().join();
+
+        assertEquals(1, this.collection.getBulkWrites().size());
+        List<WriteModel<? extends Document>> requests = this.collection.getBulkWrites().get(0);
+        assertEquals(2, requests.size());
+        assertEquals(20, ((ReplaceOneModel<? extends Document>) requests.get(0)).getReplacement().getInteger(RankCodec.POWER));
+        assertInstanceOf(DeleteOneModel.class, requests.get(1));
+        assertFalse(this.collection.getBulkWriteOptions().get(0).isOrdered());
+        assertTrue(first.isDone() && second.isDone());
+
+        // Written: the reads now go to the delegate, which was handed the mutations
+        assertEquals(0, this.repository.getQueueDepth());
+        assertEquals(0, this.repository.getInFlightCount());
+        assertEquals(20, this.repository.getRank("vip").getPower());
+        assertNull(this.repository.getRank("member"));
+    }
+
+    @Test
+    void onlyRejectedRequestsAreQueuedAgain() {
+        CompletableFuture<Void> a = this.repository.addRankAsync(rank("a", 1, false));
+        CompletableFuture<Void> b = this.repository.addRankAsync(rank("b", 2, false));
+        CompletableFuture<Void> c = this.repository.addRankAsync(rank("c", 3, false));
+        this.collection.failNext(new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)), null, new ServerAddress(), Set.of()));
+
+        assertThrows(CompletionException.class, () -> this.repository.flush().join());
+
+        assertTrue(a.isDone() && !a.isCompletedExceptionally());
+        assertTrue(c.isDone() && !c.isCompletedExceptionally());
+        assertFalse(b.isDone());
+        assertEquals(1, this.repository.getQueueDepth());
+        assertEquals(2, this.repository.getRank("b").getPower());
+        assertEquals(1, this.repository.getFailedFlushCount());
+
+        this.repository.flush().join();
+
+        assertEquals(1, this.collection.getBulkWrites().get(1).size());
+        assertTrue(b.isDone() && !b.isCompletedExceptionally());
+        assertEquals(3, this.repository.getWrittenCount());
+    }
+
+    @Test
+    void failureOfUnknownOutcomeQueuesTheWholeBatchAgain() {
+        this.repository.addRankAsync(rank("a", 1, false));
+        this.repository.addRankAsync(rank("b", 2, false));
+        this.collection.failNext(new IllegalStateException("connection reset"));
+
+        assertThrows(CompletionException.class, () -> this.repository.flush().join());
+        assertEquals(2, this.repository.getQueueDepth());
+
+        this.repository.flush().join();
+        assertEquals(2, this.collection.getBulkWrites().get(1).size());
+        assertEquals(0, this.repository.getQueueDepth());
+    }
+
+    @Test
+    void closeWritesWhatIsLeft() {
+        CompletableFuture<Void> written = this.repository.addRankAsync(rank("vip", 10, false));
+
+        this.repository.close();
+
+        assertTrue(written.isDone() && !written.isCompletedExceptionally());
+        assertEquals(1, this.collection.getBulkWrites().size());
+        assertEquals(10, this.delegate.getRank("vip").getPower());
+        assertThrows(IllegalStateException.class, () -> this.repository.addRank(rank("late", 1, false)));
+    }
+
+    private static List<String> names(List<Rank> ranks) {
+        return ranks.stream().map(Rank::getName).toList();
+    }
+
+    private static Rank rank(String name, int power, boolean defaultRank) {
+        return new SimpleRank(name, "[" + name + "]", power, defaultRank, Set.of());
+    }
+}
@@ -0,0 +1,199 @@
+package io.neskdev.api.utils.discord;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookDispatcherTest {
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final Queue<Answer> answers = new ConcurrentLinkedQueue<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.gate.countDown();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void retriesAfterTheDelayOfA429() throws Exception {
+        this.answers.add(new Answer(429, "Retry-After", "0.3"));
+        WebhookDispatcher dispatcher = new WebhookDispatcher();
+
+        long start = System.nanoTime();
+        dispatcher.send(url("/limited"), "{\"content\":\"hello\"}").get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, this.requests.size());
+        long retryDelay = this.requests.get(1).receivedAt - this.requests.get(0).receivedAt;
+        assertTrue(retryDelay >= TimeUnit.MILLISECONDS.toNanos(280), "retried after " + retryDelay + "ns");
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+        assertEquals(1, dispatcher.getRateLimitedCount());
+        assertEquals(1, dispatcher.getRetriedCount());
+        assertEquals(1, dispatcher.getSentCount());
+    }
+
+    @Test
+    void globalRateLimitPausesEveryWebhook() throws Exception {
+        this.answers.add(new Answer(429, "X-RateLimit-Global", "true", "Retry-After", "0.4"));
+        WebhookDispatcher dispatcher = new WebhookDispatcher();
+
+        CompletableFuture<Void> first = dispatcher.send(url("/first"), "{}");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (dispatcher.getRateLimitedCount() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the 429");
+            Thread.sleep(5);
+        }
+        CompletableFuture<Void> second = dispatcher.send(url("/second"), "{}");
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        Request limited = this.requests.get(0);
+        Request other = this.requests.stream().filter(request -> request.path.equals("/second")).findFirst().orElseThrow();
+        long pause = other.receivedAt - limited.receivedAt;
+        assertTrue(pause >= TimeUnit.MILLISECONDS.toNanos(380), "other webhook sent after " + pause + "ns");
+    }
+
+    @Test
+    void coalescesTextMessagesQueuedBehindEachOther() throws Exception {
+        this.gate = new CountDownLatch(1);
+        WebhookDispatcher dispatcher = new WebhookDispatcher();
+        String url = url("/text");
+
+        CompletableFuture<Void> first = dispatcher.sendText(url, "bot", null, "one");
+        waitForRequests(1);
+        CompletableFuture<Void> second = dispatcher.sendText(url, "bot", null, "two");
+        CompletableFuture<Void> third = dispatcher.sendText(url, "bot", null, "three");
+        CompletableFuture<Void> fourth = dispatcher.sendText(url, "bot", null, "four");
+        assertEquals(2, dispatcher.getQueueDepth(url));
+
+        this.gate.countDown();
+        CompletableFuture.allOf(first, second, third, fourth).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, this.requests.size());
+        assertTrue(this.requests.get(1).body.contains("two\\nthree\\nfour"), this.requests.get(1).body);
+        assertEquals(2, dispatcher.getCoalescedCount());
+        assertEquals(2, dispatcher.getSentCount());
+    }
+
+    @Test
+    void dropsMessagesOnceTheQueueIsFull() throws Exception {
+        this.gate = new CountDownLatch(1);
+        WebhookDispatcher dispatcher = new WebhookDispatcher(2, 5, TimeUnit.SECONDS);
+        String url = url("/full");
+
+        CompletableFuture<Void> first = dispatcher.send(url, "{}");
+        waitForRequests(1);
+        CompletableFuture<Void> second = dispatcher.send(url, "{}");
+        CompletableFuture<Void> third = dispatcher.send(url, "{}");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> third.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, dispatcher.getDroppedCount());
+
+        this.gate.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertEquals(2, this.requests.size());
+    }
+
+    @Test
+    void rejectsUrlsThatAreNotHttp() {
+        WebhookDispatcher dispatcher = new WebhookDispatcher();
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.send("ftp://example.com/hook", "{}"));
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.send("not a url", "{}"));
+    }
+
+    @Test
+    void sendAsyncDropsMessagesThatCannotBeQueued() {
+        assertDoesNotThrow(() -> new DiscordWebhook(url("/empty")).sendAsync());
+        assertDoesNotThrow(() -> new DiscordWebhook("not a url").setContent("hello").sendAsync());
+        assertDoesNotThrow(() -> new DiscordEmbedWebhook("ftp://example.com/hook").setContent("hello").sendAsync());
+        assertTrue(this.requests.isEmpty());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + path;
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (this.requests.size() < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for " + count + " request(s)");
+            Thread.sleep(5);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        this.requests.add(new Request(exchange.getRequestURI().getPath(), body, System.nanoTime()));
+        try {
+            this.gate.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Answer answer = this.answers.poll();
+        if (answer == null) {
+            answer = new Answer(204);
+        }
+        for (int i = 0; i + 1 < answer.headers.length; i += 2) {
+            exchange.getResponseHeaders().add(answer.headers[i], answer.headers[i + 1]);
+        }
+        if (answer.status == 204) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            byte[] response = "{\"message\":\"You are being rate limited.\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(answer.status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+        exchange.close();
+    }
+
+    private static final class Answer {
+        private final int status;
+        private final String[] headers;
+
+        private Answer(int status, String... headers) {
+            this.status = status;
+            this.headers = headers;
+        }
+    }
+
+    private static final class Request {
+        private final String path;
+        private final String body;
+        private final long receivedAt;
+
+        private Request(String path, String body, long receivedAt) {
+            this.path = path;
+            this.body = body;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
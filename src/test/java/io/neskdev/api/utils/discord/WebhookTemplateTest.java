@@ -0,0 +1,31 @@
+package io.neskdev.api.utils.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookTemplateTest {
+
+    @Test
+    void placeholderDoesNotSpanAStringEndingWithABackslash() {
+        // The string ends with an escaped backslash, so the quote after it closes the string
+        byte[] json = "{\"a\":\"{{x\\\\\"}}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(-1, WebhookTemplate.indexOfClose(json, 8));
+
+        byte[] escapedQuote = "{\"a\":\"{{x\\\"}}\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(escapedQuote.length - 4, WebhookTemplate.indexOfClose(escapedQuote, 8));
+    }
+
+    @Test
+    void escapedQuoteDoesNotEndThePlaceholderSearch() {
+        WebhookTemplate template = WebhookTemplate.of(new DiscordEmbedWebhook("https://example.com/hook")
+                .setContent("\"{{player}}\" was banned"));
+
+        assertEquals(List.of("player"), template.getVariables());
+        assertTrue(new String(template.render("Alex"), StandardCharsets.UTF_8).contains("\\\"Alex\\\" was banned"));
+    }
+}